@@ -0,0 +1,34 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.config.AnalyticsAmqpConfig;
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each batch as one JSON message and feeds consumed batches to the aggregator.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.transport", havingValue = "amqp", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AmqpClickEventTransport implements ClickEventTransport {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ClickAggregator clickAggregator;
+
+    @Override
+    public void publish(List<ClickEvent> batch) {
+        rabbitTemplate.convertAndSend(AnalyticsAmqpConfig.CLICK_EXCHANGE, AnalyticsAmqpConfig.CLICK_ROUTING_KEY, batch);
+    }
+
+    @RabbitListener(queues = "${app.analytics.queue:bigshort.clicks}",
+            concurrency = "${app.analytics.consumers:1-4}")
+    public void consume(List<ClickEvent> batch) {
+        clickAggregator.accept(batch);
+    }
+}
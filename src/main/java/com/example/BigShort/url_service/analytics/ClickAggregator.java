@@ -0,0 +1,76 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consumer side of the click pipeline: striped per-(shortCode, minute) counters.
+ * <p>
+ * Consumers add each batch's per-bucket counts to {@link LongAdder}s; {@link ClickRollupFlusher}
+ * periodically drains the deltas into the rollup tables, so the database sees one upsert per code
+ * and bucket per flush instead of one write per click.
+ */
+@Component
+public class ClickAggregator {
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    // Buckets this far behind the clock are removed once drained; later events recreate them
+    private static final long IDLE_MINUTES = 2;
+
+    private final Map<MinuteKey, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void accept(List<ClickEvent> batch) {
+        Map<MinuteKey, Long> counts = new HashMap<>();
+        for (ClickEvent event : batch) {
+            counts.merge(new MinuteKey(event.shortCode(), event.timestamp() / MILLIS_PER_MINUTE), 1L, Long::sum);
+        }
+        add(counts);
+    }
+
+    /**
+     * Takes and resets every non-zero counter. Increments racing with the drain land in the next one.
+     */
+    public Map<MinuteKey, Long> drain() {
+        long idleBefore = System.currentTimeMillis() / MILLIS_PER_MINUTE - IDLE_MINUTES;
+        Map<MinuteKey, Long> deltas = new HashMap<>();
+
+        Iterator<Map.Entry<MinuteKey, LongAdder>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<MinuteKey, LongAdder> entry = it.next();
+            long clicks = entry.getValue().sumThenReset();
+            if (entry.getKey().epochMinute() < idleBefore) {
+                it.remove();
+                clicks += entry.getValue().sumThenReset();
+            }
+            if (clicks > 0) {
+                deltas.put(entry.getKey(), clicks);
+            }
+        }
+        return deltas;
+    }
+
+    // Puts deltas back after a failed flush so they are retried
+    public void restore(Map<MinuteKey, Long> deltas) {
+        add(deltas);
+    }
+
+    // Adds inside compute, under the lock drain's removal takes too: once an idle bucket is
+    // removed nobody can still add to it, so its final sumThenReset sees every click
+    private void add(Map<MinuteKey, Long> counts) {
+        counts.forEach((key, clicks) -> pending.compute(key, (k, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(clicks);
+            return target;
+        }));
+    }
+
+    public record MinuteKey(String shortCode, long epochMinute) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+
+import java.util.List;
+
+/**
+ * Ships batches of click events from {@link ClickTracker} to {@link ClickAggregator}.
+ * Called from the drain thread only, never from a request thread.
+ */
+public interface ClickEventTransport {
+
+    void publish(List<ClickEvent> batch);
+}
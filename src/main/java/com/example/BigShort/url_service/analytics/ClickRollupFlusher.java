@@ -0,0 +1,86 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import com.example.BigShort.url_service.repository.ClickRollupRepository;
+import com.example.BigShort.url_service.repository.ClickRollupUpsert.RollupKey;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves drained click deltas into the minute/hour/day rollup tables with batched upserts.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClickRollupFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickRollupFlusher.class);
+
+    private final ClickAggregator clickAggregator;
+    private final ClickRollupRepository rollupRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${app.stats.minute-retention:P2D}")
+    private Duration minuteRetention;
+
+    // Serialized, so an explicit flush returns only after an in-flight scheduled one has landed
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval:PT10S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushDeltas() {
+        Map<ClickAggregator.MinuteKey, Long> deltas = clickAggregator.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<RollupGranularity, Map<RollupKey, Long>> rollups = new EnumMap<>(RollupGranularity.class);
+        deltas.forEach((key, clicks) -> {
+            LocalDateTime minute = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(key.epochMinute() * 60), ZoneId.systemDefault());
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                rollups.computeIfAbsent(granularity, g -> new HashMap<>())
+                        .merge(new RollupKey(key.shortCode(), granularity.bucketOf(minute)), clicks, Long::sum);
+            }
+        });
+
+        try {
+            // All granularities commit together, so a retry never double counts
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> rollups.forEach(rollupRepository::addClicks));
+            log.debug("Click rollups flushed - minuteBuckets={}", deltas.size());
+        } catch (RuntimeException e) {
+            clickAggregator.restore(deltas);
+            log.warn("Click rollup flush failed, will retry - minuteBuckets={}, error={}", deltas.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.retention-interval:PT1H}")
+    public void purgeExpiredMinuteBuckets() {
+        int deleted = rollupRepository.deleteOlderThan(RollupGranularity.MINUTE, LocalDateTime.now().minus(minuteRetention));
+        if (deleted > 0) {
+            log.info("Purged minute click rollups - rows={}", deleted);
+        }
+    }
+}
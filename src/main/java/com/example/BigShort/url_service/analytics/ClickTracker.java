@@ -0,0 +1,134 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import com.example.BigShort.url_service.util.ClientIpResolver;
+import com.example.BigShort.url_service.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Producer side of the click pipeline.
+ * <p>
+ * Request threads only build a small event and offer it to a lock-free ring buffer; when the
+ * buffer is full the event is dropped and counted in {@code bigshort.clicks.dropped}, so a slow
+ * or absent broker never adds latency to a redirect. A scheduled drain publishes the buffer in
+ * batches of {@code app.analytics.batch-size} through the configured {@link ClickEventTransport}.
+ */
+@Service
+public class ClickTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickTracker.class);
+
+    private final ClickEventTransport transport;
+    private final boolean enabled;
+    private final int batchSize;
+    private final MpscRingBuffer<ClickEvent> buffer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter dropped;
+    private final Counter published;
+    private final Counter publishFailed;
+
+    public ClickTracker(ClickEventTransport transport,
+                        @Value("${app.analytics.enabled:true}") boolean enabled,
+                        @Value("${app.analytics.buffer-capacity:65536}") int bufferCapacity,
+                        @Value("${app.analytics.batch-size:500}") int batchSize,
+                        MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.dropped = Counter.builder("bigshort.clicks.dropped")
+                .description("Click events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.published = Counter.builder("bigshort.clicks.published")
+                .description("Click events handed to the transport")
+                .register(meterRegistry);
+        this.publishFailed = Counter.builder("bigshort.clicks.publish.failed")
+                .description("Click events lost because publishing their batch failed")
+                .register(meterRegistry);
+        Gauge.builder("bigshort.clicks.buffered", buffer, MpscRingBuffer::size)
+                .description("Click events waiting to be published")
+                .register(meterRegistry);
+    }
+
+    // -------------------------------------------------------
+    // Hot path: never blocks
+    // -------------------------------------------------------
+    public void record(String shortCode, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        record(shortCode, request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT),
+                ClientIpResolver.resolve(request));
+    }
+
+    // Reactive mode: called on an event-loop thread, so the same never-blocking offer
+    public void record(String shortCode, ServerHttpRequest request) {
+        if (!enabled) {
+            return;
+        }
+        HttpHeaders headers = request.getHeaders();
+        record(shortCode, headers.getFirst(HttpHeaders.REFERER), headers.getFirst(HttpHeaders.USER_AGENT),
+                ClientIpResolver.resolve(request));
+    }
+
+    private void record(String shortCode, String referer, String userAgent, String clientIp) {
+        ClickEvent event = new ClickEvent(
+                shortCode,
+                System.currentTimeMillis(),
+                referer,
+                ClickEvent.UserAgentClass.of(userAgent),
+                clientIp);
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    // -------------------------------------------------------
+    // Drain: batches to the transport
+    // -------------------------------------------------------
+    // Serialized, so an explicit flush returns only after an in-flight scheduled drain has published
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval:PT0.2S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drain() {
+        List<ClickEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                transport.publish(batch);
+                published.increment(batch.size());
+            } catch (RuntimeException e) {
+                publishFailed.increment(batch.size());
+                log.warn("Click batch publish failed - events={}, error={}", batch.size(), e.getMessage());
+                return;  // try again on the next tick rather than spinning through the buffer
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Broker stand-in for tests and single-node setups: hands batches straight to the aggregator.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.transport", havingValue = "in-memory")
+@RequiredArgsConstructor
+public class InMemoryClickEventTransport implements ClickEventTransport {
+
+    private final ClickAggregator clickAggregator;
+
+    @Override
+    public void publish(List<ClickEvent> batch) {
+        clickAggregator.accept(batch);
+    }
+}
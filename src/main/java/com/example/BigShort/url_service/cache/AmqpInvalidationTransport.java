@@ -0,0 +1,42 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.config.CacheInvalidationAmqpConfig;
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Publishes to a fanout exchange; every instance consumes from its own auto-delete queue.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "amqp", matchIfMissing = true)
+public class AmqpInvalidationTransport implements InvalidationTransport {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    public AmqpInvalidationTransport(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @Override
+    public void publish(CacheInvalidation message) {
+        rabbitTemplate.convertAndSend(CacheInvalidationAmqpConfig.INVALIDATION_EXCHANGE, "", message);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @RabbitListener(queues = "#{invalidationQueue.name}")
+    public void consume(CacheInvalidation message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.service.impl.UrlDeduplicator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the per-instance caches honest across a cluster.
+ * <p>
+ * Writes that other instances may have cached or rejected - deactivations and every new code -
+ * are queued after commit and broadcast every {@code app.cache.invalidation.flush-interval} in
+ * batches of up to {@code app.cache.invalidation.batch-size} codes. A receiver evicts each code
+ * from {@link UrlCache}, has {@link UrlDeduplicator} re-check cached answers naming it, and adds
+ * it to the {@link ShortCodeBloomFilter}, so a link created elsewhere resolves here within the
+ * flush interval rather than at the next bloom catch-up. Batches carry a per-origin sequence
+ * number; a gap (a lost or failed publish) triggers an immediate reconciliation and bloom
+ * catch-up, run off the listener thread so delivery carries on meanwhile. Reconciliation also
+ * runs every {@code app.cache.invalidation.reconcile-interval}, evicting every code deactivated
+ * since the previous pass ({@code deactivated_at}, all shards). A deactivation is therefore
+ * honoured everywhere within the flush interval when messages flow and within the reconcile
+ * interval when they don't, independent of {@code app.cache.url.ttl}.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final UrlCache urlCache;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final UrlDeduplicator urlDeduplicator;
+    private final InvalidationTransport transport;
+    private final UrlRepository urlRepository;
+    private final ShardRouter shardRouter;
+    private final Executor gapExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration reconcileOverlap;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final Map<String, Long> nextSequenceByOrigin = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastReconcile = LocalDateTime.now();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter gaps;
+    private final Counter reconciled;
+
+    public CacheInvalidationBus(UrlCache urlCache,
+                                ShortCodeBloomFilter shortCodeFilter,
+                                UrlDeduplicator urlDeduplicator,
+                                InvalidationTransport transport,
+                                UrlRepository urlRepository,
+                                ShardRouter shardRouter,
+                                @Qualifier("applicationTaskExecutor") Executor gapExecutor,
+                                @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${app.cache.invalidation.batch-size:500}") int batchSize,
+                                @Value("${app.cache.invalidation.reconcile-overlap:PT1M}") Duration reconcileOverlap,
+                                MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.cache.invalidation.batch-size must be positive");
+        }
+        this.urlCache = urlCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.urlDeduplicator = urlDeduplicator;
+        this.transport = transport;
+        this.urlRepository = urlRepository;
+        this.shardRouter = shardRouter;
+        this.gapExecutor = gapExecutor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.reconcileOverlap = reconcileOverlap;
+        this.sent = Counter.builder("bigshort.cache.invalidation.sent")
+                .description("Short codes broadcast to other instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("bigshort.cache.invalidation.received")
+                .description("Short codes evicted on behalf of other instances")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("bigshort.cache.invalidation.gaps")
+                .description("Invalidation batches detected as missing")
+                .register(meterRegistry);
+        this.reconciled = Counter.builder("bigshort.cache.invalidation.reconciled")
+                .description("Short codes evicted by reconciliation")
+                .register(meterRegistry);
+        if (enabled) {
+            transport.subscribe(this::receive);
+        }
+    }
+
+    /**
+     * Queues the code for broadcast once the surrounding transaction commits (right away
+     * outside one). The local cache is the caller's business.
+     */
+    public void broadcastAfterCommit(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.add(shortCode);
+                }
+            });
+        } else {
+            pending.add(shortCode);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Sending: drain the queue into numbered batches
+    // -------------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval:PT0.1S}")
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        Set<String> codes = new LinkedHashSet<>();
+        String code;
+        while ((code = pending.poll()) != null) {
+            codes.add(code);
+            if (codes.size() == batchSize) {
+                send(new ArrayList<>(codes));
+                codes.clear();
+            }
+        }
+        if (!codes.isEmpty()) {
+            send(new ArrayList<>(codes));
+        }
+    }
+
+    // A failed publish still uses up its sequence number: receivers see the gap and reconcile
+    private void send(List<String> codes) {
+        CacheInvalidation message = new CacheInvalidation(origin, sequence.incrementAndGet(), codes, System.currentTimeMillis());
+        try {
+            transport.publish(message);
+            sent.increment(codes.size());
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation publish failed, peers will reconcile - sequence={}, codes={}, error={}",
+                    message.sequence(), codes.size(), e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------
+    // Receiving
+    // -------------------------------------------------------
+    void receive(CacheInvalidation message) {
+        if (origin.equals(message.origin())) {
+            return;
+        }
+        for (String shortCode : message.shortCodes()) {
+            urlCache.invalidate(shortCode);
+            shortCodeFilter.addAfterCommit(shortCode);
+            urlDeduplicator.forget(shortCode);
+        }
+        received.increment(message.shortCodes().size());
+
+        // The first batch seen from an origin sets the baseline; stale or duplicate batches are harmless
+        Long expected = nextSequenceByOrigin.put(message.origin(), message.sequence() + 1);
+        if (expected != null && message.sequence() > expected) {
+            gaps.increment(message.sequence() - expected);
+            log.warn("Cache invalidation gap - origin={}, expected={}, received={}; reconciling",
+                    message.origin(), expected, message.sequence());
+            gapExecutor.execute(() -> {
+                reconcile();
+                shortCodeFilter.catchUp();
+            });
+        }
+    }
+
+    // -------------------------------------------------------
+    // Reconciliation: evict everything deactivated since the last pass
+    // -------------------------------------------------------
+    // Never waits: a call arriving during a pass leaves a request behind, and the running pass
+    // goes round once more after it finishes, so that call's deactivations are still covered
+    @Scheduled(initialDelayString = "${app.cache.invalidation.reconcile-interval:PT30S}",
+            fixedDelayString = "${app.cache.invalidation.reconcile-interval:PT30S}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        reconcileRequested.set(true);
+        while (reconcileRequested.get() && reconcileLock.tryLock()) {
+            try {
+                if (reconcileRequested.getAndSet(false)) {
+                    reconcilePass();
+                }
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+    }
+
+    private void reconcilePass() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastReconcile.minus(reconcileOverlap);
+        try {
+            int count = shardRouter.onAllShards(shard -> {
+                List<String> codes = urlRepository.findShortCodesDeactivatedSince(since);
+                codes.forEach(code -> {
+                    urlCache.invalidate(code);
+                    urlDeduplicator.forget(code);
+                });
+                return codes.size();
+            }).stream().mapToInt(Integer::intValue).sum();
+            lastReconcile = now;
+            reconciled.increment(count);
+            log.debug("Cache reconciliation - codes={}", count);
+        } catch (RuntimeException e) {
+            log.warn("Cache reconciliation failed, will retry - error={}", e.getMessage());
+        }
+    }
+}
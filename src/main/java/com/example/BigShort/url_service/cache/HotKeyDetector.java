@@ -0,0 +1,199 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streaming heavy-hitter detection over redirect lookups, feeding {@link UrlCache}'s pinned tier.
+ * <p>
+ * Every {@code app.hotkeys.sample-rate}-th lookup is counted in a count-min sketch
+ * ({@value #DEPTH} rows of {@code app.hotkeys.sketch-width} atomic counters). A code whose estimate
+ * clears {@code app.hotkeys.min-hits} and the current admission floor is offered to a top-K
+ * candidate set ({@code app.hotkeys.top-k}) kept in a min-heap; request threads only try the
+ * lock and skip the offer when it is busy, since a hot code comes round again soon. Every
+ * {@code app.hotkeys.refresh-interval} the top K become the pinned set, then all counts are
+ * halved, so estimates follow current traffic and a code that cools off drops out within a few
+ * intervals.
+ */
+@Component
+public class HotKeyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyDetector.class);
+    static final int DEPTH = 4;
+
+    private final UrlCache urlCache;
+    private final boolean enabled;
+    private final int topK;
+    private final long minHits;
+    private final int sampleRate;
+    private final int sampleMask;
+    private final int widthMask;
+    private final AtomicLongArray counters;     // DEPTH rows of width counters
+    private final Counter promoted;
+
+    // Top-K candidates: estimates by code, plus a min-heap over them whose entries may be stale
+    // (re-checked against the map when popped)
+    private final ReentrantLock candidatesLock = new ReentrantLock();
+    private final Map<String, Long> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::hits));
+    private volatile long admissionFloor;
+
+    private volatile List<HotKey> hotKeys = List.of();
+
+    public HotKeyDetector(UrlCache urlCache,
+                          @Value("${app.hotkeys.enabled:true}") boolean enabled,
+                          @Value("${app.hotkeys.top-k:2000}") int topK,
+                          @Value("${app.hotkeys.min-hits:100}") long minHits,
+                          @Value("${app.hotkeys.sample-rate:4}") int sampleRate,
+                          @Value("${app.hotkeys.sketch-width:65536}") int sketchWidth,
+                          MeterRegistry meterRegistry) {
+        if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("app.hotkeys.sample-rate must be a power of two");
+        }
+        if (sketchWidth < 2 || Integer.bitCount(sketchWidth) != 1) {
+            throw new IllegalArgumentException("app.hotkeys.sketch-width must be a power of two");
+        }
+        this.urlCache = urlCache;
+        this.enabled = enabled;
+        this.topK = Math.max(1, topK);
+        this.minHits = minHits;
+        this.sampleRate = sampleRate;
+        this.sampleMask = sampleRate - 1;
+        this.widthMask = sketchWidth - 1;
+        this.counters = new AtomicLongArray(DEPTH * sketchWidth);
+        this.promoted = Counter.builder("bigshort.hotkeys.promoted")
+                .description("Codes newly promoted into the pinned tier")
+                .register(meterRegistry);
+    }
+
+    public record HotKey(String shortCode, long estimatedHits, boolean pinned) {
+    }
+
+    record Candidate(String shortCode, long hits) {
+    }
+
+    // -------------------------------------------------------
+    // Hot path: a few atomic increments, never waits for a lock
+    // -------------------------------------------------------
+    public void record(String shortCode) {
+        if (!enabled || (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0)) {
+            return;
+        }
+        long estimate = increment(shortCode) * sampleRate;
+        if (estimate >= minHits && estimate > admissionFloor && candidatesLock.tryLock()) {
+            try {
+                offer(shortCode, estimate);
+            } finally {
+                candidatesLock.unlock();
+            }
+        }
+    }
+
+    // Min over the rows = the count-min estimate; indexes by double hashing
+    private long increment(String shortCode) {
+        int h1 = Hashing.mix(shortCode.hashCode());
+        int h2 = Hashing.mix(h1 ^ 0x9E3779B9) | 1;
+        int width = widthMask + 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + ((h1 + row * h2) & widthMask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    // Caller holds candidatesLock
+    private void offer(String shortCode, long estimate) {
+        Long previous = candidates.put(shortCode, estimate);
+        if (previous != null) {
+            return;     // heap entry is refreshed lazily
+        }
+        heap.add(new Candidate(shortCode, estimate));
+        while (candidates.size() > topK) {
+            Candidate lowest = heap.poll();
+            Long current = candidates.get(lowest.shortCode());
+            if (current == null) {
+                continue;
+            }
+            if (current != lowest.hits()) {
+                heap.add(new Candidate(lowest.shortCode(), current));
+            } else {
+                candidates.remove(lowest.shortCode());
+                admissionFloor = current;
+            }
+        }
+    }
+
+    // -------------------------------------------------------
+    // Promotion and decay
+    // -------------------------------------------------------
+    @Scheduled(initialDelayString = "${app.hotkeys.refresh-interval:PT5S}",
+            fixedDelayString = "${app.hotkeys.refresh-interval:PT5S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        List<Candidate> top;
+        candidatesLock.lock();
+        try {
+            top = new ArrayList<>(candidates.size());
+            candidates.forEach((code, hits) -> top.add(new Candidate(code, hits)));
+
+            // Halve everything: the next window starts from the recent past, not from zero
+            heap.clear();
+            candidates.replaceAll((code, hits) -> hits / 2);
+            candidates.values().removeIf(hits -> hits < minHits / 2 || hits == 0);
+            candidates.forEach((code, hits) -> heap.add(new Candidate(code, hits)));
+            admissionFloor = candidates.size() < topK ? 0 : heap.peek().hits();
+        } finally {
+            candidatesLock.unlock();
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            long value = counters.get(i);
+            if (value != 0) {
+                counters.addAndGet(i, -(value - value / 2));
+            }
+        }
+
+        top.sort(Comparator.comparingLong(Candidate::hits).reversed());
+        List<String> codes = top.stream().map(Candidate::shortCode).toList();
+        int before = (int) codes.stream().filter(urlCache::isPinned).count();
+        urlCache.pin(codes);
+
+        List<HotKey> snapshot = new ArrayList<>(top.size());
+        int pinnedNow = 0;
+        for (Candidate candidate : top) {
+            boolean pinned = urlCache.isPinned(candidate.shortCode());
+            pinnedNow += pinned ? 1 : 0;
+            snapshot.add(new HotKey(candidate.shortCode(), candidate.hits(), pinned));
+        }
+        hotKeys = List.copyOf(snapshot);
+        promoted.increment(Math.max(0, pinnedNow - before));
+        if (!top.isEmpty()) {
+            log.debug("Hot keys refreshed - candidates={}, pinned={}", top.size(), pinnedNow);
+        }
+    }
+
+    /**
+     * Hot set as of the last refresh, hottest first.
+     */
+    public List<HotKey> hotKeys() {
+        return hotKeys;
+    }
+}
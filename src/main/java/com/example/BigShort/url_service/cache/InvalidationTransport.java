@@ -0,0 +1,16 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidation} batches from {@link CacheInvalidationBus} to every instance,
+ * the sender included (the bus skips its own).
+ */
+public interface InvalidationTransport {
+
+    void publish(CacheInvalidation message);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,321 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * id -> {@link RedirectTarget} map held in direct memory, for working sets too large to keep as
+ * Java objects.
+ * <p>
+ * The key space is split over {@code segments}, each with its own read/write lock, an
+ * open-addressing index (16 bytes a slot: id, record offset; linear probing with backward-shift
+ * deletion, so no tombstones) and an append-only record area of {@code maxBytes / segments}.
+ * A record is {@value #HEADER} bytes of header plus the UTF-8 URL, against a few hundred bytes
+ * per entry for a String-keyed on-heap cache; the heap holds only the segment objects, so GC
+ * work no longer grows with the number of cached links. Reads build a {@link RedirectTarget}
+ * on the way out (short-lived garbage, cheap to collect).
+ * <p>
+ * Every record carries a deadline (cache TTL or the link's expiry, whichever comes first);
+ * expired records read as misses. Removed, replaced and expired records are reclaimed by
+ * compacting a segment in place when its record area or index fills up. If a compaction frees
+ * less than a quarter of the segment, the segment is cleared instead - a coarse eviction, but it
+ * bounds the work per write, and hot codes are reloaded at once. Memory is reserved up front and
+ * returned when the store is garbage collected; size {@code -XX:MaxDirectMemorySize} for it.
+ */
+public class OffHeapUrlStore {
+
+    // deadline (8) | id (8) | expires epoch second (8) | expires nano (4) | active (1) | url length (4)
+    static final int HEADER = 33;
+    private static final int SLOT = 16;
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes   record area across all segments
+     * @param maxEntries entries across all segments; the index takes 32 bytes per entry on top
+     * @param segments   lock stripes, a power of two
+     */
+    public OffHeapUrlStore(long maxBytes, long maxEntries, int segments) {
+        if (segments < 1 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("off-heap segments must be a power of two");
+        }
+        long bytesPerSegment = maxBytes / segments;
+        // Half-full index at most: probe chains stay short
+        long slotsPerSegment = Long.highestOneBit(Math.max(2, (maxEntries + segments - 1) / segments) * 2 - 1) * 2;
+        if (bytesPerSegment < 1024 || bytesPerSegment > Integer.MAX_VALUE || slotsPerSegment * SLOT > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("off-heap segments must each hold 1KB to 2GB of records and index; adjust max-bytes, max-entries or segments");
+        }
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment((int) bytesPerSegment, (int) slotsPerSegment);
+        }
+    }
+
+    public RedirectTarget get(long id, long nowMillis) {
+        long hash = mix(id);
+        RedirectTarget target = segmentFor(hash).get(id, hash, nowMillis);
+        (target == null ? misses : hits).increment();
+        return target;
+    }
+
+    /**
+     * Stores {@code target} for {@code id} until {@code deadlineMillis}.
+     *
+     * @return false if the URL is too long to ever fit a segment
+     */
+    public boolean put(long id, RedirectTarget target, long deadlineMillis) {
+        byte[] url = target.originalUrl().getBytes(StandardCharsets.UTF_8);
+        long hash = mix(id);
+        return segmentFor(hash).put(id, hash, target, url, deadlineMillis);
+    }
+
+    public void remove(long id) {
+        long hash = mix(id);
+        segmentFor(hash).remove(id, hash);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.entries;
+        }
+        return size;
+    }
+
+    // Bytes of record area in use, live or not yet reclaimed
+    public long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.top;
+        }
+        return used;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long compactions() {
+        return compactions.sum();
+    }
+
+    // Entries dropped by clearing a segment that compaction could not free
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+    // murmur3 fmix64: segment from the high half, slot from the low half
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // -------------------------------------------------------
+    // Segment: index slots hold (id, record offset + 1); 0 marks an empty slot
+    // -------------------------------------------------------
+    private final class Segment {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ByteBuffer index;
+        private final ByteBuffer records;
+        private final int mask;
+        private final int maxEntries;
+        private volatile int entries;
+        private volatile int top;
+
+        Segment(int bytes, int slots) {
+            this.index = ByteBuffer.allocateDirect(slots * SLOT);
+            this.records = ByteBuffer.allocateDirect(bytes);
+            this.mask = slots - 1;
+            this.maxEntries = slots / 2;
+        }
+
+        RedirectTarget get(long id, long hash, long nowMillis) {
+            lock.readLock().lock();
+            try {
+                int slot = find(id, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                int offset = (int) (index.getLong(slot * SLOT + 8) - 1);
+                if (records.getLong(offset) < nowMillis) {
+                    return null;    // reclaimed by the next compaction
+                }
+                long expiresSecond = records.getLong(offset + 16);
+                LocalDateTime expiresAt = expiresSecond == NO_EXPIRY ? null
+                        : LocalDateTime.ofEpochSecond(expiresSecond, records.getInt(offset + 24), ZoneOffset.UTC);
+                boolean active = records.get(offset + 28) != 0;
+                byte[] url = new byte[records.getInt(offset + 29)];
+                records.get(offset + HEADER, url);
+                return new RedirectTarget(new String(url, StandardCharsets.UTF_8), expiresAt, active);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean put(long id, long hash, RedirectTarget target, byte[] url, long deadlineMillis) {
+            int size = HEADER + url.length;
+            if (size > records.capacity()) {
+                return false;
+            }
+            lock.writeLock().lock();
+            try {
+                int slot = find(id, hash);
+                if (!fits(size) || slot < 0 && entries >= maxEntries) {
+                    makeRoom(size, System.currentTimeMillis());
+                    slot = find(id, hash);
+                }
+                int offset = top;
+                records.putLong(offset, deadlineMillis);
+                records.putLong(offset + 8, id);
+                if (target.expiresAt() == null) {
+                    records.putLong(offset + 16, NO_EXPIRY);
+                    records.putInt(offset + 24, 0);
+                } else {
+                    records.putLong(offset + 16, target.expiresAt().toEpochSecond(ZoneOffset.UTC));
+                    records.putInt(offset + 24, target.expiresAt().getNano());
+                }
+                records.put(offset + 28, (byte) (target.active() ? 1 : 0));
+                records.putInt(offset + 29, url.length);
+                records.put(offset + HEADER, url);
+                top = offset + size;
+
+                if (slot < 0) {
+                    slot = emptySlot(hash);
+                    index.putLong(slot * SLOT, id);
+                    entries++;
+                }
+                index.putLong(slot * SLOT + 8, offset + 1L);    // any previous record is now dead
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id, long hash) {
+            lock.writeLock().lock();
+            try {
+                int slot = find(id, hash);
+                if (slot >= 0) {
+                    deleteSlot(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private boolean fits(int size) {
+            return size <= records.capacity() - top;
+        }
+
+        // Caller holds the write lock
+        private void makeRoom(int size, long nowMillis) {
+            compact(nowMillis);
+            if (!fits(size + records.capacity() / 4) || entries > maxEntries - maxEntries / 4) {
+                evictions.add(entries);
+                for (int i = 0; i < index.capacity(); i += 8) {
+                    index.putLong(i, 0L);
+                }
+                entries = 0;
+                top = 0;
+            }
+        }
+
+        // Slides live records down over dead ones, in append order; drops expired ones
+        private void compact(long nowMillis) {
+            compactions.increment();
+            byte[] scratch = new byte[256];
+            int read = 0;
+            int write = 0;
+            int end = top;
+            while (read < end) {
+                long id = records.getLong(read + 8);
+                int size = HEADER + records.getInt(read + 29);
+                int slot = find(id, mix(id));
+                boolean live = slot >= 0 && index.getLong(slot * SLOT + 8) == read + 1L;
+                if (live && records.getLong(read) < nowMillis) {
+                    deleteSlot(slot);
+                    live = false;
+                }
+                if (live) {
+                    if (write != read) {
+                        if (scratch.length < size) {
+                            scratch = new byte[size];
+                        }
+                        records.get(read, scratch, 0, size);
+                        records.put(write, scratch, 0, size);
+                        index.putLong(slot * SLOT + 8, write + 1L);
+                    }
+                    write += size;
+                }
+                read += size;
+            }
+            top = write;
+        }
+
+        private int find(long id, long hash) {
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                long ref = index.getLong(slot * SLOT + 8);
+                if (ref == 0) {
+                    return -1;
+                }
+                if (index.getLong(slot * SLOT) == id) {
+                    return slot;
+                }
+            }
+        }
+
+        private int emptySlot(long hash) {
+            int slot = (int) hash & mask;
+            while (index.getLong(slot * SLOT + 8) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // Backward-shift deletion: pulls later members of the probe chain into the hole
+        private void deleteSlot(int hole) {
+            for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+                long ref = index.getLong(slot * SLOT + 8);
+                if (ref == 0) {
+                    break;
+                }
+                long id = index.getLong(slot * SLOT);
+                int home = (int) mix(id) & mask;
+                boolean staysPut = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+                if (!staysPut) {
+                    index.putLong(hole * SLOT, id);
+                    index.putLong(hole * SLOT + 8, ref);
+                    hole = slot;
+                }
+            }
+            index.putLong(hole * SLOT, 0L);
+            index.putLong(hole * SLOT + 8, 0L);
+            entries--;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.ShortCodeRef;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every issued short code, used to reject unknown codes without a query.
+ * <p>
+ * The filter is built from the urls table shortly after startup and rebuilt on
+ * {@code app.bloom.rebuild-interval}. Codes created on this node are added after commit;
+ * codes created on other nodes arrive over the {@link CacheInvalidationBus} once they commit there.
+ * A cheap catch-up scan over {@code created_at} backs that up when broadcasts are lost. Both scans
+ * visit every shard in parallel. Until the first build completes every lookup is let through.
+ */
+@Component
+public class ShortCodeBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortCodeBloomFilter.class);
+    private static final int SCAN_PAGE_SIZE = 10_000;
+
+    private final UrlRepository urlRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration catchUpOverlap;
+    private final Counter rejected;
+
+    private volatile Bits current;      // null until the first build finishes
+    private volatile Bits building;     // non-null while a rebuild is scanning
+    private volatile LocalDateTime lastCatchUp;
+
+    public ShortCodeBloomFilter(UrlRepository urlRepository,
+                                ShardRouter shardRouter,
+                                @Value("${app.bloom.enabled:true}") boolean enabled,
+                                @Value("${app.bloom.expected-insertions:10000000}") long expectedInsertions,
+                                @Value("${app.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.bloom.catch-up-overlap:PT1M}") Duration catchUpOverlap,
+                                MeterRegistry meterRegistry) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("app.bloom.false-positive-rate must be in (0, 1)");
+        }
+        this.urlRepository = urlRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpOverlap = catchUpOverlap;
+        this.rejected = Counter.builder("bigshort.bloom.rejected")
+                .description("Lookups rejected in memory because the short code was never issued")
+                .register(meterRegistry);
+        Gauge.builder("bigshort.bloom.expected.fpp", this, ShortCodeBloomFilter::expectedFalsePositiveRate)
+                .description("Estimated false positive rate at the current fill level")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false only when the code was definitely never issued
+     */
+    public boolean mightContain(String shortCode) {
+        Bits bits = current;
+        if (!enabled || bits == null || bits.mightContain(shortCode)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Records a newly issued code once the creating transaction commits.
+     */
+    public void addAfterCommit(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(shortCode);
+                }
+            });
+        } else {
+            add(shortCode);
+        }
+    }
+
+    // A rebuild in progress must see the code too, so check it first: if it is
+    // already gone the swap has happened and current is the new filter.
+    private void add(String shortCode) {
+        Bits next = building;
+        if (next != null) {
+            next.put(shortCode);
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.put(shortCode);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Full (re)build: keyset scan over the whole table
+    // -------------------------------------------------------
+    @Scheduled(initialDelayString = "${app.bloom.initial-delay:PT0S}",
+            fixedDelayString = "${app.bloom.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        LocalDateTime scanStart = LocalDateTime.now();
+        Bits next = new Bits(expectedInsertions, falsePositiveRate);
+        building = next;
+
+        try {
+            long count = shardRouter.onAllShards(shard -> scanShard(next)).stream().mapToLong(Long::longValue).sum();
+
+            current = next;
+            lastCatchUp = scanStart;
+            log.info("Bloom filter rebuilt - codes={}, bits={}, hashes={}, tookMs={}",
+                    count, next.bitSize, next.hashCount, (System.nanoTime() - started) / 1_000_000);
+            if (count > expectedInsertions) {
+                log.warn("Bloom filter over capacity - codes={}, expectedInsertions={}; raise app.bloom.expected-insertions",
+                        count, expectedInsertions);
+            }
+        } catch (RuntimeException e) {
+            log.error("Bloom filter rebuild failed - keeping previous filter, error={}", e.getMessage(), e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private long scanShard(Bits next) {
+        long afterId = 0;
+        long count = 0;
+        List<ShortCodeRef> page;
+        do {
+            page = urlRepository.findShortCodesAfter(afterId, PageRequest.ofSize(SCAN_PAGE_SIZE));
+            for (ShortCodeRef ref : page) {
+                next.put(ref.shortCode());
+                afterId = ref.id();
+            }
+            count += page.size();
+        } while (page.size() == SCAN_PAGE_SIZE);
+        return count;
+    }
+
+    // -------------------------------------------------------
+    // Catch-up: codes created by other instances since the last pass
+    // -------------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.bloom.catch-up-interval:PT5S}")
+    public void catchUp() {
+        Bits bits = current;
+        LocalDateTime since = lastCatchUp;
+        if (!enabled || bits == null || since == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            LocalDateTime from = since.minus(catchUpOverlap);
+            int count = shardRouter.onAllShards(shard -> {
+                List<String> codes = urlRepository.findShortCodesCreatedSince(from);
+                codes.forEach(this::add);
+                return codes.size();
+            }).stream().mapToInt(Integer::intValue).sum();
+            lastCatchUp = now;
+            log.debug("Bloom filter catch-up - codes={}", count);
+        } catch (RuntimeException e) {
+            log.warn("Bloom filter catch-up failed - error={}", e.getMessage());
+        }
+    }
+
+    private double expectedFalsePositiveRate() {
+        Bits bits = current;
+        return bits == null ? 1.0 : bits.expectedFalsePositiveRate();
+    }
+
+    // -------------------------------------------------------
+    // Bit array with k hashes derived from two (Kirsch-Mitzenmacher)
+    // -------------------------------------------------------
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashCount;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            long wordCount = Math.max(1, (bits + 63) >>> 6);
+            if (wordCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+            }
+            this.words = new AtomicLongArray((int) wordCount);
+            this.bitSize = wordCount << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    long witness = words.compareAndExchange(index, word, word | mask);
+                    if (witness == word) {
+                        break;
+                    }
+                    word = witness;
+                }
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h1 = hash(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Sampled fill ratio is good enough for a gauge
+        double expectedFalsePositiveRate() {
+            int length = words.length();
+            int step = Math.max(1, length / 4096);
+            long set = 0;
+            long sampled = 0;
+            for (int i = 0; i < length; i += step) {
+                set += Long.bitCount(words.get(i));
+                sampled += 64;
+            }
+            return Math.pow((double) set / sampled, hashCount);
+        }
+
+        private static long hash(String key, long seed) {
+            long h = seed ^ key.length();
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            }
+            // murmur3 fmix64
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
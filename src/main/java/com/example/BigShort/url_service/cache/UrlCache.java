@@ -0,0 +1,329 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.util.Hashing;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import com.example.BigShort.url_service.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of shortCode -> {@link RedirectTarget} in front of the database.
+ * <p>
+ * Entries are evicted by size (W-TinyLFU) and by time: each entry lives for the configured
+ * TTL or until the link's own {@code expiresAt}, whichever comes first, so an expired link
+ * falls out of the cache on its own. Hit/miss/eviction counters are published under the
+ * {@code cache.*} metrics with {@code cache=urlCache}.
+ * <p>
+ * {@link #getOrLoad} coalesces concurrent misses on one code into a single load (a viral link
+ * that was just created or evicted costs one query, not one per request); loads and coalesced
+ * misses are counted in {@code bigshort.cache.loads} and {@code bigshort.cache.coalesced}.
+ * A load that overlaps an invalidation of its code does not leave its row behind: every
+ * invalidation bumps a generation counter for the code's stripe, and a load whose stripe moved
+ * while it ran evicts what it cached.
+ * <p>
+ * In front of it sits a small pinned tier for the codes {@link HotKeyDetector} finds hot: an
+ * immutable map swapped on each promotion, so reads take no lock and pinned codes survive
+ * however much the main cache churns. Invalidation unpins, so deactivations still apply.
+ * <p>
+ * With {@code app.cache.url.off-heap.enabled}, codes that are exactly what the generator would
+ * issue for some id are held in an {@link OffHeapUrlStore} keyed by that id instead, under the
+ * same lifetime rule; custom codes stay on the heap. Its hit/miss/compaction/eviction counters
+ * are published as {@code bigshort.cache.offheap.*}.
+ */
+@Component
+public class UrlCache {
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<String, RedirectTarget> cache;
+    private final SingleFlight<String, RedirectTarget> loads = new SingleFlight<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Object pinLock = new Object();
+    private volatile Map<String, RedirectTarget> pinned = Map.of();
+    private final Counter pinnedHits;
+    private final long ttlMillis;
+    private final ShortCodeFormat shortCodeFormat;
+    private final OffHeapUrlStore offHeap;      // null unless app.cache.url.off-heap.enabled
+
+    public UrlCache(long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(maxSize, ttl, null, null, meterRegistry);
+    }
+
+    @Autowired
+    public UrlCache(@Value("${app.cache.url.max-size:1000000}") long maxSize,
+                    @Value("${app.cache.url.ttl:PT10M}") Duration ttl,
+                    @Value("${app.cache.url.off-heap.enabled:false}") boolean offHeapEnabled,
+                    @Value("${app.cache.url.off-heap.max-size:1GB}") DataSize offHeapMaxSize,
+                    @Value("${app.cache.url.off-heap.max-entries:10000000}") long offHeapMaxEntries,
+                    @Value("${app.cache.url.off-heap.segments:64}") int offHeapSegments,
+                    ShortCodeFormat shortCodeFormat,
+                    MeterRegistry meterRegistry) {
+        this(maxSize, ttl, shortCodeFormat,
+                offHeapEnabled ? new OffHeapUrlStore(offHeapMaxSize.toBytes(), offHeapMaxEntries, offHeapSegments) : null,
+                meterRegistry);
+    }
+
+    public UrlCache(long maxSize, Duration ttl, ShortCodeFormat shortCodeFormat, OffHeapUrlStore offHeap,
+                    MeterRegistry meterRegistry) {
+        this.ttlMillis = ttl.toMillis();
+        this.shortCodeFormat = shortCodeFormat;
+        this.offHeap = offHeap;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LinkExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "urlCache");
+        FunctionCounter.builder("bigshort.cache.loads", loads, SingleFlight::loads)
+                .description("Lookups that went to the database after a cache miss")
+                .tag("cache", "urlCache")
+                .register(meterRegistry);
+        FunctionCounter.builder("bigshort.cache.coalesced", loads, SingleFlight::coalesced)
+                .description("Cache misses that waited for a concurrent load of the same code instead of querying")
+                .tag("cache", "urlCache")
+                .register(meterRegistry);
+        Gauge.builder("bigshort.cache.loads.in.flight", loads, SingleFlight::inFlight)
+                .description("Codes currently being loaded")
+                .tag("cache", "urlCache")
+                .register(meterRegistry);
+        this.pinnedHits = Counter.builder("bigshort.cache.pinned.hits")
+                .description("Lookups served by the pinned hot-code tier")
+                .tag("cache", "urlCache")
+                .register(meterRegistry);
+        Gauge.builder("bigshort.cache.pinned.size", this, c -> c.pinned.size())
+                .description("Codes currently pinned")
+                .tag("cache", "urlCache")
+                .register(meterRegistry);
+        if (offHeap != null) {
+            FunctionCounter.builder("bigshort.cache.offheap.hits", offHeap, OffHeapUrlStore::hits)
+                    .description("Lookups served from the off-heap store")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bigshort.cache.offheap.misses", offHeap, OffHeapUrlStore::misses)
+                    .description("Off-heap lookups that found no live entry")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bigshort.cache.offheap.compactions", offHeap, OffHeapUrlStore::compactions)
+                    .description("Off-heap segment compactions")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bigshort.cache.offheap.evictions", offHeap, OffHeapUrlStore::evictions)
+                    .description("Off-heap entries dropped because a full segment was cleared")
+                    .register(meterRegistry);
+            Gauge.builder("bigshort.cache.offheap.size", offHeap, OffHeapUrlStore::size)
+                    .description("Entries in the off-heap store")
+                    .register(meterRegistry);
+            Gauge.builder("bigshort.cache.offheap.used.bytes", offHeap, OffHeapUrlStore::usedBytes)
+                    .description("Off-heap record bytes in use, including space not yet compacted")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    public RedirectTarget get(String shortCode) {
+        RedirectTarget target = pinned.get(shortCode);
+        if (target != null) {
+            pinnedHits.increment();
+            return target;
+        }
+        return lookup(shortCode);
+    }
+
+    private RedirectTarget lookup(String shortCode) {
+        long id = offHeapId(shortCode);
+        return id < 0 ? cache.getIfPresent(shortCode) : offHeap.get(id, System.currentTimeMillis());
+    }
+
+    // -1: the code lives in the on-heap cache
+    private long offHeapId(String shortCode) {
+        return offHeap == null ? -1 : shortCodeFormat.canonicalId(shortCode);
+    }
+
+    /**
+     * Cached target, or the result of {@code loader} - run once for all concurrent callers and
+     * cached before they are released, unless the code was invalidated while it ran. A loader
+     * exception reaches every waiting caller and nothing is cached.
+     */
+    public RedirectTarget getOrLoad(String shortCode, Supplier<RedirectTarget> loader) {
+        RedirectTarget target = get(shortCode);
+        if (target != null) {
+            return target;
+        }
+        return loads.load(shortCode, () -> {
+            long generation = generation(shortCode);
+            RedirectTarget loaded = loader.get();
+            putIfCurrent(shortCode, loaded, generation);
+            return loaded;
+        });
+    }
+
+    /**
+     * Invalidation generation of {@code shortCode}; read it before querying and hand it to
+     * {@link #putIfCurrent} with the result.
+     */
+    public long generation(String shortCode) {
+        return generations.get(stripe(shortCode));
+    }
+
+    /**
+     * Caches a freshly loaded target unless {@code shortCode} was invalidated since
+     * {@code generation} was read, in which case the row may predate that invalidation.
+     */
+    public void putIfCurrent(String shortCode, RedirectTarget target, long generation) {
+        put(shortCode, target);
+        // invalidate() bumps before it evicts: either its eviction removes this entry, or the
+        // bump is visible here and we remove it ourselves
+        if (generation(shortCode) != generation) {
+            evict(shortCode);
+            unpin(shortCode);
+        }
+    }
+
+    private static int stripe(String shortCode) {
+        return Hashing.mix(shortCode.hashCode()) & (GENERATION_STRIPES - 1);
+    }
+
+    public void put(String shortCode, RedirectTarget target) {
+        long id = offHeapId(shortCode);
+        if (id < 0) {
+            cache.put(shortCode, target);
+            return;
+        }
+        long deadline = System.currentTimeMillis() + ttlMillis;
+        if (target.expiresAt() != null) {
+            deadline = Math.min(deadline, target.expiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        offHeap.put(id, target, deadline);     // a URL longer than a whole segment stays uncached
+    }
+
+    public void invalidate(String shortCode) {
+        generations.incrementAndGet(stripe(shortCode));
+        evict(shortCode);
+        unpin(shortCode);
+    }
+
+    private void evict(String shortCode) {
+        long id = offHeapId(shortCode);
+        if (id >= 0) {
+            offHeap.remove(id);
+        }
+        cache.invalidate(shortCode);
+    }
+
+    /**
+     * Evicts now and again once the surrounding transaction commits. A load that read the
+     * pre-commit row and tries to cache it after the second eviction sees the generation move
+     * and drops it (see {@link #putIfCurrent}).
+     */
+    public void invalidateAfterCommit(String shortCode) {
+        invalidate(shortCode);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(shortCode);
+                }
+            });
+        }
+    }
+
+    // -------------------------------------------------------
+    // Pinned tier: replaced wholesale, read without locking
+    // -------------------------------------------------------
+
+    /**
+     * Makes {@code shortCodes} the pinned set. Codes already pinned keep their target; the
+     * others are pinned only if the main cache holds a live target for them (a hot code
+     * normally is), so pinning never queries the database.
+     */
+    public void pin(Collection<String> shortCodes) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (pinLock) {
+            Map<String, RedirectTarget> current = pinned;
+            Map<String, RedirectTarget> next = new HashMap<>(shortCodes.size() * 2);
+            for (String shortCode : shortCodes) {
+                RedirectTarget target = current.get(shortCode);
+                if (target == null) {
+                    target = lookup(shortCode);
+                }
+                if (target != null && !target.isExpired(now)) {
+                    next.put(shortCode, target);
+                }
+            }
+            pinned = Map.copyOf(next);
+        }
+    }
+
+    public boolean isPinned(String shortCode) {
+        return pinned.containsKey(shortCode);
+    }
+
+    /**
+     * Pinned target of {@code shortCode}, or null; never falls back to the main cache. A new
+     * object whenever the code is re-pinned after an invalidation, so callers holding state
+     * derived from a target can compare references to tell whether it still applies.
+     */
+    public RedirectTarget getPinned(String shortCode) {
+        return pinned.get(shortCode);
+    }
+
+    // Always under the lock: a pin() that read the main cache before the eviction above
+    // publishes first, and is then corrected here
+    private void unpin(String shortCode) {
+        synchronized (pinLock) {
+            if (pinned.containsKey(shortCode)) {
+                Map<String, RedirectTarget> next = new HashMap<>(pinned);
+                next.remove(shortCode);
+                pinned = Map.copyOf(next);
+            }
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize() + (offHeap == null ? 0 : offHeap.size());
+    }
+
+    // -------------------------------------------------------
+    // Per-entry lifetime: min(ttl, time left until expiresAt)
+    // -------------------------------------------------------
+    private record LinkExpiry(long ttlNanos) implements Expiry<String, RedirectTarget> {
+
+        @Override
+        public long expireAfterCreate(String key, RedirectTarget value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, RedirectTarget value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, RedirectTarget value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.BigShort.url_service.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.analytics.transport", havingValue = "amqp", matchIfMissing = true)
+public class AnalyticsAmqpConfig {
+
+    public static final String CLICK_EXCHANGE = "bigshort.analytics";
+    public static final String CLICK_ROUTING_KEY = "clicks";
+
+    @Bean
+    public DirectExchange clickExchange() {
+        return new DirectExchange(CLICK_EXCHANGE);
+    }
+
+    @Bean
+    public Queue clickQueue(@Value("${app.analytics.queue:bigshort.clicks}") String queueName) {
+        return new Queue(queueName, true);
+    }
+
+    @Bean
+    public Binding clickBinding(Queue clickQueue, DirectExchange clickExchange) {
+        return BindingBuilder.bind(clickQueue).to(clickExchange).with(CLICK_ROUTING_KEY);
+    }
+}
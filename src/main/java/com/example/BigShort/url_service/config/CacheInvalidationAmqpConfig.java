@@ -0,0 +1,33 @@
+package com.example.BigShort.url_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "amqp", matchIfMissing = true)
+public class CacheInvalidationAmqpConfig {
+
+    public static final String INVALIDATION_EXCHANGE = "bigshort.cache.invalidations";
+
+    @Bean
+    public FanoutExchange invalidationExchange() {
+        return new FanoutExchange(INVALIDATION_EXCHANGE);
+    }
+
+    // One server-named, exclusive, auto-delete queue per instance: every instance sees every batch
+    @Bean
+    public Queue invalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding invalidationBinding(Queue invalidationQueue, FanoutExchange invalidationExchange) {
+        return BindingBuilder.bind(invalidationQueue).to(invalidationExchange);
+    }
+}
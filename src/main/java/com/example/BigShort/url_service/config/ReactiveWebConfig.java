@@ -0,0 +1,76 @@
+package com.example.BigShort.url_service.config;
+
+import com.example.BigShort.url_service.controller.ReactiveUrlHandler;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+/**
+ * Reactive deployment mode, switched on with {@code spring.main.web-application-type=reactive}:
+ * Netty instead of Tomcat, functional routes instead of the MVC controllers, and a pooled R2DBC
+ * connection to {@code app.reactive.r2dbc.url} for the lookup path.
+ * <p>
+ * The JDBC {@code DataSource} stays (Flyway, creation, id leasing, the background jobs), and
+ * Boot's R2DBC auto-configuration stays excluded: its transaction manager would compete with
+ * the JPA one for {@code @Transactional}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    private ConnectionPool connectionPool;
+
+    // The pool is deliberately not a ConnectionFactory bean: Boot skips the JDBC DataSource when it sees one
+    @Bean
+    public DatabaseClient databaseClient(
+            @Value("${app.reactive.r2dbc.url:}") String url,
+            @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${app.reactive.r2dbc.pool-size:32}") int poolSize,
+            @Value("${app.reactive.r2dbc.connection-timeout:PT2S}") Duration connectionTimeout) {
+        if (url.isBlank()) {
+            throw new IllegalStateException("Reactive mode needs app.reactive.r2dbc.url, e.g. r2dbc:mysql://localhost:3306/thebigshort");
+        }
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("r2dbc")
+                .initialSize(Math.min(poolSize, 4))
+                .maxSize(poolSize)
+                .maxAcquireTime(connectionTimeout)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> urlRoutes(ReactiveUrlHandler handler) {
+        return RouterFunctions.route()
+                .POST("/api/shorten", handler::shorten)
+                .POST("/api/custom_shorten", handler::customShorten)
+                .GET("/api/{shortCode}", handler::info)
+                .GET("/r/{shortCode}", handler::redirect)
+                .onError(Throwable.class, handler::error)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.BigShort.url_service.config;
+
+import com.example.BigShort.url_service.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Horizontal shards, enabled by {@code app.sharding.enabled=true}.
+ * <p>
+ * {@code spring.datasource.*} is shard 0 (Flyway migrates it as usual; it also holds the id
+ * sequence, the partition map and the click rollups); {@code app.sharding.shard-urls} lists
+ * shards 1..n, which are migrated here with the same settings before the application uses them.
+ * The application-wide {@code DataSource} becomes a lazy proxy over {@link ShardRoutingDataSource}.
+ * Not combined with read replicas yet: {@link ReplicaDataSourceConfig} stands down when this is on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            @Qualifier("shardZeroDataSource") DataSource shardZeroDataSource,
+            DataSourceProperties properties,
+            @Value("${app.sharding.shard-urls:}") List<String> urls,
+            @Value("${app.sharding.username:${spring.datasource.username:}}") String username,
+            @Value("${app.sharding.password:${spring.datasource.password:}}") String password,
+            @Value("${app.sharding.pool-size:32}") int poolSize,
+            @Value("${app.sharding.connection-timeout:PT2S}") Duration connectionTimeout) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(shardZeroDataSource);
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setJdbcUrl(url.strip());
+            shard.setUsername(username);
+            shard.setPassword(password);
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setMaximumPoolSize(poolSize);
+            shard.setConnectionTimeout(connectionTimeout.toMillis());
+            // Same as spring.flyway.baseline-* for shard 0
+            Flyway.configure()
+                    .dataSource(shard)
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.BigShort.url_service.controller;
+
+import com.example.BigShort.url_service.analytics.ClickTracker;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.exception.InvalidShortCodeException;
+import com.example.BigShort.url_service.exception.InvalidUrlException;
+import com.example.BigShort.url_service.exception.ShortCodeAlreadyExistsException;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.exception.ShortCodeTooLongException;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import com.example.BigShort.url_service.service.interfaces.ReactiveUrlService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Handlers behind the reactive routes (see {@code ReactiveWebConfig}): the shorten, lookup and
+ * redirect endpoints of {@link UrlController} and {@link RedirectController}, with the same
+ * request/response DTOs, status codes and error bodies as {@code GlobalExceptionHandler}.
+ * Everything here runs on the event loop and must not block.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUrlHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveUrlHandler.class);
+    private final ReactiveUrlService urlService;
+    private final ClickTracker clickTracker;
+    private final Validator validator;
+    private final HttpStatus redirectStatus;
+
+    public ReactiveUrlHandler(ReactiveUrlService urlService,
+                              ClickTracker clickTracker,
+                              Validator validator,
+                              @Value("${app.redirect.status:302}") int redirectStatus) {
+        this.urlService = urlService;
+        this.clickTracker = clickTracker;
+        this.validator = validator;
+        this.redirectStatus = HttpStatus.valueOf(redirectStatus);
+        if (!this.redirectStatus.is3xxRedirection()) {
+            throw new IllegalArgumentException("app.redirect.status must be a 3xx status, got " + redirectStatus);
+        }
+    }
+
+    // -------------------------------------------------------
+    // POST /api/shorten
+    // -------------------------------------------------------
+    public Mono<ServerResponse> shorten(ServerRequest request) {
+        return validBody(request)
+                .flatMap(urlService::createUrl)
+                .flatMap(response -> {
+                    log.info("POST /api/shorten - status=200, shortCode={}", response.getShortCode());
+                    return ServerResponse.ok().bodyValue(response);
+                });
+    }
+
+    // -------------------------------------------------------
+    // POST /api/custom_shorten?customCode=
+    // -------------------------------------------------------
+    public Mono<ServerResponse> customShorten(ServerRequest request) {
+        String customCode = request.queryParam("customCode").orElse(null);
+        return validBody(request)
+                .flatMap(body -> urlService.createCustomUrl(customCode, body))
+                .flatMap(response -> {
+                    log.info("POST /api/custom_shorten - status=200, shortCode={}", response.getShortCode());
+                    return ServerResponse.ok().bodyValue(response);
+                });
+    }
+
+    // -------------------------------------------------------
+    // GET /api/{shortCode}
+    // -------------------------------------------------------
+    public Mono<ServerResponse> info(ServerRequest request) {
+        String shortCode = request.pathVariable("shortCode");
+        return urlService.getUrlInfo(shortCode)
+                .flatMap(response -> {
+                    clickTracker.record(shortCode, request.exchange().getRequest());
+                    return ServerResponse.ok().bodyValue(response);
+                });
+    }
+
+    // -------------------------------------------------------
+    // GET /r/{shortCode}
+    // -------------------------------------------------------
+    public Mono<ServerResponse> redirect(ServerRequest request) {
+        String shortCode = request.pathVariable("shortCode");
+        return urlService.resolveRedirect(shortCode)
+                .flatMap(originalUrl -> {
+                    clickTracker.record(shortCode, request.exchange().getRequest());
+                    log.debug("GET /r/{} - status={}", shortCode, redirectStatus.value());
+                    return ServerResponse.status(redirectStatus)
+                            .header(HttpHeaders.LOCATION, originalUrl)
+                            .build();
+                });
+    }
+
+    // Bean Validation on the DTO, as @Valid does for the servlet controllers
+    private Mono<URLRequest> validBody(ServerRequest request) {
+        return request.bodyToMono(URLRequest.class)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+                .flatMap(body -> {
+                    Set<ConstraintViolation<URLRequest>> violations = validator.validate(body);
+                    return violations.isEmpty() ? Mono.just(body) : Mono.error(new ConstraintViolationException(violations));
+                });
+    }
+
+    // -------------------------------------------------------
+    // Errors: same statuses and body shape as GlobalExceptionHandler
+    // -------------------------------------------------------
+    public Mono<ServerResponse> error(Throwable ex, ServerRequest request) {
+        if (ex instanceof ConstraintViolationException violations) {
+            log.warn("Validation exception - fieldCount={}, path={}", violations.getConstraintViolations().size(), request.path());
+            Map<String, String> errors = new HashMap<>();
+            violations.getConstraintViolations().forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            Map<String, Object> body = body(HttpStatus.BAD_REQUEST, "Validation Failed", request);
+            body.put("errors", errors);
+            return ServerResponse.badRequest().bodyValue(body);
+        }
+
+        HttpStatus status;
+        String error;
+        String message = ex.getMessage();
+        if (ex instanceof InvalidUrlException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Invalid URL";
+        } else if (ex instanceof ShortCodeAlreadyExistsException) {
+            status = HttpStatus.CONFLICT;
+            error = "Short Code Already Exists";
+        } else if (ex instanceof InvalidShortCodeException || ex instanceof ShortCodeTooLongException) {
+            status = HttpStatus.BAD_REQUEST;
+            error = "Invalid Short Code";
+        } else if (ex instanceof ShortCodeNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            error = "Not Found";
+        } else if (ex instanceof UrlGoneException) {
+            status = HttpStatus.GONE;
+            error = "Gone";
+        } else if (ex instanceof RuntimeException) {
+            log.error("Runtime exception - message={}, path={}, exception={}",
+                    ex.getMessage(), request.path(), ex.getClass().getSimpleName(), ex);
+            status = HttpStatus.NOT_FOUND;
+            error = "Not Found";
+        } else {
+            log.error("Unexpected exception - message={}, path={}, exception={}",
+                    ex.getMessage(), request.path(), ex.getClass().getSimpleName(), ex);
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+            error = "Internal Server Error";
+            message = "An unexpected error occurred";
+        }
+
+        if (status.is4xxClientError()) {
+            log.debug("{} {} - status={}, error={}", request.method(), request.path(), status.value(), message);
+        }
+        Map<String, Object> body = body(status, error, request);
+        body.put("message", message);
+        return ServerResponse.status(status).bodyValue(body);
+    }
+
+    private static Map<String, Object> body(HttpStatus status, String error, ServerRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", error);
+        body.put("path", request.path());
+        return body;
+    }
+}
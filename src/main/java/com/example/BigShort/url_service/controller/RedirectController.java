@@ -0,0 +1,56 @@
+package com.example.BigShort.url_service.controller;
+
+import com.example.BigShort.url_service.analytics.ClickTracker;
+import com.example.BigShort.url_service.service.impl.URLService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the public short links ({@code app.shortener.domain} points here).
+ * This is the hot path, so it only logs at DEBUG.
+ */
+@RestController
+@RequestMapping("/r")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RedirectController {
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectController.class);
+    private final URLService urlService;
+    private final ClickTracker clickTracker;
+    private final HttpStatus redirectStatus;
+
+    public RedirectController(URLService urlService,
+                              ClickTracker clickTracker,
+                              @Value("${app.redirect.status:302}") int redirectStatus) {
+        this.urlService = urlService;
+        this.clickTracker = clickTracker;
+        this.redirectStatus = HttpStatus.valueOf(redirectStatus);
+        if (!this.redirectStatus.is3xxRedirection()) {
+            throw new IllegalArgumentException("app.redirect.status must be a 3xx status, got " + redirectStatus);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Redirect to the original URL
+    // -------------------------------------------------------
+    @GetMapping("/{shortCode}")
+    public ResponseEntity<Void> redirect(@PathVariable String shortCode, HttpServletRequest httpRequest) {
+        String originalUrl = urlService.resolveRedirect(shortCode);
+        clickTracker.record(shortCode, httpRequest);
+
+        log.debug("GET /r/{} - status={}", shortCode, redirectStatus.value());
+        return ResponseEntity.status(redirectStatus)
+                .header(HttpHeaders.LOCATION, originalUrl)
+                .build();
+    }
+}
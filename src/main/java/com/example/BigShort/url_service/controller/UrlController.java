@@ -54,25 +54,64 @@
 
 package com.example.BigShort.url_service.controller;
 
+import com.example.BigShort.url_service.analytics.ClickTracker;
+import com.example.BigShort.url_service.domain.dto.BatchItemResult;
 import com.example.BigShort.url_service.domain.dto.URLRequest;
 import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.domain.dto.UrlStatsResponse;
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import com.example.BigShort.url_service.exception.BatchTooLargeException;
+import com.example.BigShort.url_service.hotpath.HotLinkResponses;
 import com.example.BigShort.url_service.service.impl.URLService;
+import com.example.BigShort.url_service.service.interfaces.StatsService;
+import com.example.BigShort.url_service.util.ClientIpResolver;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class UrlController {
 
     private static final Logger log = LoggerFactory.getLogger(UrlController.class);
     private final URLService urlService;
+    private final ObjectMapper objectMapper;
+    private final ClickTracker clickTracker;
+    private final StatsService statsService;
+    private final HotLinkResponses hotLinkResponses;
+
+    @Value("${app.batch.max-items:10000}")
+    private int maxBatchItems;  // JSON array bodies only; NDJSON is streamed
+
+    @Value("${app.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     // -------------------------------------------------------
     // Standard shorten
@@ -96,6 +135,109 @@ public class UrlController {
         }
     }
 
+    // -------------------------------------------------------
+    // Bulk shorten (JSON array, bounded size)
+    // -------------------------------------------------------
+    @PostMapping(value = "/shorten/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchItemResult>> shortenBatch(HttpServletRequest httpRequest) throws IOException {
+        List<URLRequest> requests = readBatch(httpRequest);
+        log.info("POST /api/shorten/batch - ip={}, items={}", getClientIp(httpRequest), requests.size());
+
+        List<BatchItemResult> results = urlService.createUrls(requests, 0);
+        log.info("POST /api/shorten/batch - status=200, items={}", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    // Parses the array one item at a time and gives up at max-items + 1, so an oversized body
+    // is refused after reading at most max-items of it
+    private List<URLRequest> readBatch(HttpServletRequest httpRequest) throws IOException {
+        List<URLRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(httpRequest.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new HttpMessageNotReadableException("Batch body must be a JSON array",
+                        new ServletServerHttpRequest(httpRequest));
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new HttpMessageNotReadableException("Batch body ends inside the array",
+                            new ServletServerHttpRequest(httpRequest));
+                }
+                if (requests.size() == maxBatchItems) {
+                    throw new BatchTooLargeException(maxBatchItems);
+                }
+                requests.add(objectMapper.readValue(parser, URLRequest.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e,
+                    new ServletServerHttpRequest(httpRequest));
+        }
+        return requests;
+    }
+
+    // -------------------------------------------------------
+    // Bulk shorten (NDJSON in, NDJSON out, one chunk in memory at a time)
+    // -------------------------------------------------------
+    @PostMapping(value = "/shorten/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void shortenBatchStream(HttpServletRequest httpRequest,
+                                   HttpServletResponse httpResponse) throws IOException {
+        log.info("POST /api/shorten/batch (ndjson) - ip={}", getClientIp(httpRequest));
+
+        httpResponse.setStatus(HttpStatus.OK.value());
+        httpResponse.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        int index = 0;
+        int total = 0;
+        List<URLRequest> chunk = new ArrayList<>(batchChunkSize);
+        List<BatchItemResult> parseErrors = new ArrayList<>();
+        OutputStream out = httpResponse.getOutputStream();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(objectMapper.readValue(line, URLRequest.class));
+                } catch (JsonProcessingException e) {
+                    // Keep the slot so results stay aligned with input lines
+                    chunk.add(null);
+                    parseErrors.add(BatchItemResult.builder().index(index).error("Malformed JSON line").build());
+                }
+                index++;
+                if (chunk.size() == batchChunkSize) {
+                    total += writeChunk(chunk, index - chunk.size(), parseErrors, out);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                total += writeChunk(chunk, index - chunk.size(), parseErrors, out);
+            }
+        }
+
+        log.info("POST /api/shorten/batch (ndjson) - status=200, items={}", total);
+    }
+
+    private int writeChunk(List<URLRequest> chunk, int firstIndex,
+                           List<BatchItemResult> parseErrors, OutputStream out) throws IOException {
+        List<BatchItemResult> results = urlService.createUrls(chunk, firstIndex);
+        for (BatchItemResult parseError : parseErrors) {
+            results.set(parseError.getIndex() - firstIndex, parseError);
+        }
+        for (BatchItemResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+
+        int written = chunk.size();
+        chunk.clear();
+        parseErrors.clear();
+        return written;
+    }
+
     // -------------------------------------------------------
     // Custom short code
     // -------------------------------------------------------
@@ -134,6 +276,8 @@ public class UrlController {
 
         try {
             URLResponse response = urlService.getUrlInfo(shortCode);
+            clickTracker.record(shortCode, httpRequest);
+            hotLinkResponses.rememberInfo(shortCode, response);   // HotLinkFilter serves it from now on, if pinned
 
             log.info("GET /api/{} - status=200, isActive={}", shortCode, response.getIsActive());
             return ResponseEntity.ok(response);
@@ -145,19 +289,27 @@ public class UrlController {
     }
 
     // -------------------------------------------------------
-    // Helper method to extract client IP
+    // Click statistics (defaults: last 24 hours, hourly)
     // -------------------------------------------------------
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
+    @GetMapping("/{shortCode}/stats")
+    public ResponseEntity<UrlStatsResponse> getStats(
+            @PathVariable String shortCode,
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(23);
 
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
+        UrlStatsResponse response = statsService.getStats(shortCode, granularity, start, end);
+        log.info("GET /api/{}/stats - status=200, granularity={}, totalClicks={}",
+                shortCode, granularity, response.getTotalClicks());
+        return ResponseEntity.ok(response);
+    }
 
-        return request.getRemoteAddr();
+    // -------------------------------------------------------
+    // Helper method to extract client IP
+    // -------------------------------------------------------
+    private String getClientIp(HttpServletRequest request) {
+        return ClientIpResolver.resolve(request);
     }
 }
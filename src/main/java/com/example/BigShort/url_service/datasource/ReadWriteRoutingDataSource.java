@@ -0,0 +1,163 @@
+package com.example.BigShort.url_service.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only work to a pool of replicas and everything else to the primary.
+ * <p>
+ * A connection is taken from a replica when the current transaction (or SUPPORTS scope) is
+ * {@code readOnly} and the thread is not inside {@link #onPrimary}. Replicas are picked round-robin
+ * among the healthy ones; one that fails to hand out a connection is marked down until the next
+ * health check succeeds, and with no healthy replica reads fall back to the primary. Must sit
+ * behind a {@code LazyConnectionDataSourceProxy} so the read-only flag is known before the
+ * connection is fetched.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray healthy;   // 1 = up, per replica index
+    private final AtomicInteger next = new AtomicInteger();
+    private final int validationTimeoutSeconds;
+    private final Counter fallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      int validationTimeoutSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = new AtomicIntegerArray(this.replicas.size());
+        for (int i = 0; i < this.replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.fallbacks = Counter.builder("bigshort.datasource.replica.fallback")
+                .description("Read-only connections served by the primary because no replica was available")
+                .register(meterRegistry);
+        Gauge.builder("bigshort.datasource.replicas.healthy", this, ReadWriteRoutingDataSource::healthyCount)
+                .description("Replicas currently taking reads")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} with every connection taken from the primary, e.g. to read a row
+     * the replicas may not have yet.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(target -> target.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        if (!routesToReplica()) {
+            return connector.connect(primary);
+        }
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % count;
+            if (healthy.get(index) == 0) {
+                continue;
+            }
+            try {
+                return connector.connect(replicas.get(index));
+            } catch (SQLException e) {
+                markDown(index, e);
+            }
+        }
+        fallbacks.increment();
+        return connector.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource target) throws SQLException;
+    }
+
+    private boolean routesToReplica() {
+        return !replicas.isEmpty()
+                && PRIMARY_FORCED.get() == null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // -------------------------------------------------------
+    // Health: replicas marked down come back once they validate again
+    // -------------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    if (healthy.getAndSet(i, 1) == 0) {
+                        log.info("Replica back in rotation - replica={}", i);
+                    }
+                } else {
+                    markDown(i, null);
+                }
+            } catch (SQLException e) {
+                markDown(i, e);
+            }
+        }
+    }
+
+    private void markDown(int index, SQLException cause) {
+        if (healthy.getAndSet(index, 0) == 1) {
+            log.warn("Replica taken out of rotation - replica={}, error={}",
+                    index, cause != null ? cause.getMessage() : "validation failed");
+        }
+    }
+
+    private int healthyCount() {
+        int count = 0;
+        for (int i = 0; i < healthy.length(); i++) {
+            count += healthy.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
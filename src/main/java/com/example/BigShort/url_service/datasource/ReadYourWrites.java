@@ -0,0 +1,55 @@
+package com.example.BigShort.url_service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Keeps lookups consistent with writes while replicas lag.
+ * <p>
+ * Codes written on this instance within {@code app.datasource.replicas.read-your-writes-window}
+ * are read from the primary (at most {@code read-your-writes-max-size} of them are tracked).
+ * A code the replica does not know is retried on the primary once, which covers codes written
+ * by other instances; unknown codes rarely get that far because the bloom filter rejects them
+ * first. Without replicas every call is a plain pass-through.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${app.datasource.replicas.urls:}") List<String> replicaUrls,
+                          @Value("${app.sharding.enabled:false}") boolean sharded,
+                          @Value("${app.datasource.replicas.read-your-writes-window:PT5S}") Duration window,
+                          @Value("${app.datasource.replicas.read-your-writes-max-size:100000}") long maxSize) {
+        this.enabled = !sharded && replicaUrls.stream().anyMatch(url -> !url.isBlank());
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWrite(String shortCode) {
+        if (enabled && shortCode != null) {
+            recentWrites.put(shortCode, Boolean.TRUE);
+        }
+    }
+
+    public <T> Optional<T> find(String shortCode, Supplier<Optional<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        if (recentWrites.getIfPresent(shortCode) != null) {
+            return ReadWriteRoutingDataSource.onPrimary(query);
+        }
+        Optional<T> result = query.get();
+        return result.isPresent() ? result : ReadWriteRoutingDataSource.onPrimary(query);
+    }
+}
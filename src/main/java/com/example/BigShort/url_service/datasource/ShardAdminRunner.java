@@ -0,0 +1,76 @@
+package com.example.BigShort.url_service.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs one shard admin task and exits, e.g.
+ * {@code java -jar bigshort.jar --spring.main.web-application-type=none --app.sharding.admin-task=stats}.
+ * <ul>
+ *   <li>{@code stats} - links, active links and owned partitions per shard</li>
+ *   <li>{@code rebalance} - move rows that are not on their partition's shard</li>
+ *   <li>{@code assign:<partition>=<shard>[,<partition>=<shard>...]} - reassign partitions and move their rows</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "app.sharding.admin-task")
+public class ShardAdminRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardAdminRunner.class);
+
+    private final ShardRebalancer rebalancer;
+    private final ConfigurableApplicationContext context;
+    private final String task;
+
+    public ShardAdminRunner(ShardRebalancer rebalancer,
+                            ConfigurableApplicationContext context,
+                            @Value("${app.sharding.admin-task}") String task) {
+        this.rebalancer = rebalancer;
+        this.context = context;
+        this.task = task.strip();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        try {
+            if (task.equals("stats")) {
+                rebalancer.stats().forEach(stats -> log.info("Shard stats - shard={}, links={}, activeLinks={}, partitions={}",
+                        stats.shard(), stats.links(), stats.activeLinks(), stats.partitions()));
+            } else if (task.equals("rebalance")) {
+                rebalancer.rebalance();
+            } else if (task.startsWith("assign:")) {
+                rebalancer.assign(parseAssignments(task.substring("assign:".length())));
+            } else {
+                throw new IllegalArgumentException("Unknown app.sharding.admin-task: " + task);
+            }
+        } catch (RuntimeException e) {
+            log.error("Shard admin task failed - task={}, error={}", task, e.getMessage(), e);
+            status = 1;
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    static Map<Integer, Integer> parseAssignments(String spec) {
+        Map<Integer, Integer> moves = new LinkedHashMap<>();
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.strip().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected <partition>=<shard>, got: " + pair);
+            }
+            moves.put(Integer.parseInt(parts[0].strip()), Integer.parseInt(parts[1].strip()));
+        }
+        return moves;
+    }
+}
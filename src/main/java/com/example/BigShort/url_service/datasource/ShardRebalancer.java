@@ -0,0 +1,203 @@
+package com.example.BigShort.url_service.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Shard-parallel admin scans and row moves between shards.
+ * <p>
+ * {@link #rebalance} scans every shard by primary key and moves each row whose partition the
+ * map assigns elsewhere: copy to the owner in one batch, then delete from the source. A source row
+ * is only deleted while it is still as active as its copy; one deactivated in between is copied
+ * again first, so the deactivation is not lost. It is
+ * idempotent (a row already copied is merged, deactivation winning), so an interrupted run is
+ * simply run again; it also spreads the rows of a database that was filled before sharding was
+ * enabled. {@link #assign} moves whole partitions: rows are copied while the old shard still
+ * serves them, the map is flipped, and after {@code app.sharding.rebalance.settle-time} (longer
+ * than the map refresh interval, so every instance writes to the new owner) a rebalance picks up
+ * stragglers and removes the old copies. Run from {@link ShardAdminRunner}.
+ */
+@Component
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    private static final String COLUMNS = "id, short_code, original_url, created_at, expires_at, is_active, " +
+            "short_url, url_hash, deactivated_at";
+    private static final String SELECT_PAGE = "SELECT " + COLUMNS + " FROM urls WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT = "INSERT INTO urls (id, short_code, original_url, created_at, expires_at, " +
+            "is_active, short_url, url_hash, deactivated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE is_active = is_active AND VALUES(is_active), " +
+            "deactivated_at = COALESCE(deactivated_at, VALUES(deactivated_at))";
+    private static final String DELETE = "DELETE FROM urls WHERE id = ? AND is_active = ?";
+    private static final RowMapper<Object[]> ROW = (rs, rowNum) -> new Object[]{
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getTimestamp(4), rs.getTimestamp(5),
+            rs.getBoolean(6), rs.getString(7), rs.getBytes(8), rs.getTimestamp(9)};
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleTime;
+
+    public ShardRebalancer(ShardRouter shardRouter,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.sharding.rebalance.settle-time:PT30S}") Duration settleTime) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settleTime = settleTime;
+    }
+
+    public record ShardStats(int shard, long links, long activeLinks, int partitions) {
+    }
+
+    // -------------------------------------------------------
+    // Admin scans
+    // -------------------------------------------------------
+    public List<ShardStats> stats() {
+        int[] map = shardRouter.partitionMap();
+        return shardRouter.onAllShards(shard -> {
+            long links = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM urls", Long.class);
+            long active = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM urls WHERE is_active = TRUE", Long.class);
+            int partitions = 0;
+            for (int owner : map) {
+                partitions += owner == shard ? 1 : 0;
+            }
+            return new ShardStats(shard, links, active, partitions);
+        });
+    }
+
+    // -------------------------------------------------------
+    // Moves
+    // -------------------------------------------------------
+
+    /**
+     * Moves every row that is not on the shard its partition is mapped to.
+     *
+     * @return rows moved
+     */
+    public long rebalance() {
+        long moved = shardRouter.onAllShards(source ->
+                move(source, partition -> true, shardRouter::shardOfPartition, true))
+                .stream().mapToLong(Long::longValue).sum();
+        log.info("Rebalance finished - moved={}", moved);
+        return moved;
+    }
+
+    /**
+     * Reassigns partitions ({@code partition -> shard}) and moves their rows.
+     *
+     * @return rows moved
+     */
+    public long assign(Map<Integer, Integer> moves) {
+        moves.forEach((partition, shard) -> {
+            if (partition < 0 || partition >= shardRouter.partitionCount()) {
+                throw new IllegalArgumentException("No partition " + partition);
+            }
+            if (shard < 0 || shard >= shardRouter.shardCount()) {
+                throw new IllegalArgumentException("No shard " + shard);
+            }
+        });
+        long copied = shardRouter.onAllShards(source ->
+                move(source, moves::containsKey, moves::get, false))
+                .stream().mapToLong(Long::longValue).sum();
+        moves.forEach(shardRouter::assign);
+        log.info("Partitions reassigned - partitions={}, copied={}, settleTime={}", moves.size(), copied, settleTime);
+
+        try {
+            Thread.sleep(settleTime.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before the old copies were removed; run rebalance", e);
+        }
+        return rebalance();
+    }
+
+    // Keyset scan of one shard; deleting rows behind the cursor does not disturb it
+    private long move(int source, IntPredicate partitions, IntUnaryOperator targetOf, boolean delete) {
+        long afterId = 0;
+        long moved = 0;
+        List<Object[]> page;
+        do {
+            page = jdbcTemplate.query(SELECT_PAGE, ROW, afterId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = (Long) page.get(page.size() - 1)[0];
+
+            Map<Integer, List<Object[]>> byTarget = new HashMap<>();
+            for (Object[] row : page) {
+                int partition = shardRouter.partitionOfCode((String) row[1]);
+                if (!partitions.test(partition)) {
+                    continue;
+                }
+                int target = targetOf.applyAsInt(partition);
+                if (target != source) {
+                    byTarget.computeIfAbsent(target, shard -> new ArrayList<>()).add(row);
+                }
+            }
+            for (Map.Entry<Integer, List<Object[]>> entry : byTarget.entrySet()) {
+                List<Object[]> rows = entry.getValue();
+                copy(entry.getKey(), rows);
+                if (delete) {
+                    deleteCopied(source, entry.getKey(), rows);
+                }
+                moved += rows.size();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        if (moved > 0) {
+            log.info("Shard scanned - shard={}, moved={}, deleted={}", source, moved, delete);
+        }
+        return moved;
+    }
+
+    private void copy(int target, List<Object[]> rows) {
+        shardRouter.onShard(target, () -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT, rows)));
+    }
+
+    // Deletes only rows whose is_active still matches the copy. Whatever is left was deactivated
+    // after the page was read: re-read, copy again and retry. Update counts are not used, as
+    // rewritten MySQL batches don't report them.
+    private void deleteCopied(int source, int target, List<Object[]> rows) {
+        List<Object[]> pending = rows;
+        for (int attempt = 1; ; attempt++) {
+            List<Object[]> conditions = pending.stream().map(row -> new Object[]{row[0], row[5]}).toList();
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(DELETE, conditions));
+            pending = reread(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (attempt == MAX_DELETE_ATTEMPTS) {
+                log.warn("Rows changed during the move, left on the source for the next rebalance - source={}, target={}, rows={}",
+                        source, target, pending.size());
+                return;
+            }
+            copy(target, pending);
+        }
+    }
+
+    private List<Object[]> reread(List<Object[]> rows) {
+        String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+        Object[] ids = rows.stream().map(row -> row[0]).toArray();
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM urls WHERE id IN (" + placeholders + ")", ROW, ids);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.BigShort.url_service.datasource;
+
+import com.example.BigShort.url_service.util.Hashing;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a link and pins the current thread to it.
+ * <p>
+ * Links are spread over {@code app.sharding.partitions} logical partitions (a power of two,
+ * fixed for the life of the data), and the {@code shard_partitions} table on shard 0 maps each
+ * partition to a physical shard. Generated ids carry their partition in the low bits, so the
+ * shard of a generated code is read straight off the decoded id; the partition is taken from the
+ * URL hash, which keeps dedup candidates on one shard. Custom codes are partitioned by a hash of
+ * the code and their ids carry that partition too, so by-id operations route the same way.
+ * Moving a partition is a map update plus a row copy ({@link ShardRebalancer}); other instances
+ * pick the new map up within {@code app.sharding.map-refresh-interval}.
+ * <p>
+ * Work runs on a shard through {@link #onShard}, which {@link ShardRoutingDataSource} reads when
+ * a connection is opened. Switching shards inside a transaction is refused, as the connection is
+ * already bound. With sharding off there is one shard and every call is a pass-through.
+ */
+@Component
+public class ShardRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final int partitionCount;
+    private final int partitionBits;
+    private final ShortCodeFormat shortCodeFormat;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile int[] partitionMap;    // partition -> shard
+
+    public ShardRouter(ShortCodeFormat shortCodeFormat,
+                       JdbcTemplate jdbcTemplate,
+                       @Value("${app.sharding.enabled:false}") boolean enabled,
+                       @Value("${app.sharding.shard-urls:}") List<String> shardUrls,
+                       @Value("${app.sharding.partitions:1024}") int partitions) {
+        this.shortCodeFormat = shortCodeFormat;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        if (!enabled) {
+            this.shardCount = 1;
+            this.partitionCount = 1;
+            this.partitionBits = 0;
+            this.partitionMap = new int[1];
+            return;
+        }
+        if (partitions < 1 || Integer.bitCount(partitions) != 1) {
+            throw new IllegalArgumentException("app.sharding.partitions must be a power of two");
+        }
+        if (!shortCodeFormat.hasCheckChar()) {
+            // Without it a custom code could decode to a generated id and route by the wrong rule
+            throw new IllegalStateException("app.sharding.enabled requires app.shortener.check-char=true");
+        }
+        this.shardCount = 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+        this.partitionCount = partitions;
+        this.partitionBits = Integer.numberOfTrailingZeros(partitions);
+        this.partitionMap = loadPartitionMap(true);
+        log.info("Sharding enabled - shards={}, partitions={}", shardCount, partitionCount);
+    }
+
+    /**
+     * Shard the current thread is pinned to (0 outside {@link #onShard}).
+     */
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int partitionCount() {
+        return partitionCount;
+    }
+
+    // -------------------------------------------------------
+    // Partitions: ids, codes and URL hashes
+    // -------------------------------------------------------
+    public long composeId(long sequence, int partition) {
+        return (sequence << partitionBits) | partition;
+    }
+
+    public int partitionOfId(long id) {
+        return (int) (id & (partitionCount - 1));
+    }
+
+    public int partitionOfCode(String shortCode) {
+        if (!enabled) {
+            return 0;
+        }
+        if (shortCodeFormat.isGenerated(shortCode)) {
+            try {
+                return partitionOfId(shortCodeFormat.idOf(shortCode));
+            } catch (IllegalArgumentException e) {
+                // Digits overflow a long: no such id was ever issued, any shard answers "not found"
+            }
+        }
+        // String.hashCode is fixed by the spec, so custom codes land on the same partition on every JVM
+        return Hashing.mix(shortCode.hashCode()) & (partitionCount - 1);
+    }
+
+    public int partitionOfUrlHash(byte[] urlHash) {
+        int h = (urlHash[0] & 0xFF) << 24 | (urlHash[1] & 0xFF) << 16 | (urlHash[2] & 0xFF) << 8 | (urlHash[3] & 0xFF);
+        return h & (partitionCount - 1);
+    }
+
+    public int shardOfPartition(int partition) {
+        return partitionMap[partition];
+    }
+
+    public int shardOfCode(String shortCode) {
+        return shardOfPartition(partitionOfCode(shortCode));
+    }
+
+    public int shardOfId(long id) {
+        return shardOfPartition(partitionOfId(id));
+    }
+
+    // -------------------------------------------------------
+    // Running work on a shard
+    // -------------------------------------------------------
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        int current = previous == null ? 0 : previous;
+        if (shard != current && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + current + " to " + shard + " inside a transaction");
+        }
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} once per shard, all shards in parallel, and returns the results by shard.
+     */
+    public <T> List<T> onAllShards(IntFunction<T> work) {
+        if (shardCount == 1) {
+            return Collections.singletonList(onShard(0, () -> work.apply(0)));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int target = shard;
+                futures.add(executor.submit(() -> onShard(target, () -> work.apply(target))));
+            }
+            List<T> results = new ArrayList<>(shardCount);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // -------------------------------------------------------
+    // Partition map (shard_partitions on shard 0)
+    // -------------------------------------------------------
+    public int[] partitionMap() {
+        return partitionMap.clone();
+    }
+
+    /**
+     * Points {@code partition} at {@code shard} for every instance. Rows are not moved; see
+     * {@link ShardRebalancer#assign}.
+     */
+    public void assign(int partition, int shard) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("No shard " + shard);
+        }
+        onShard(0, () -> jdbcTemplate.update("UPDATE shard_partitions SET shard = ? WHERE partition_no = ?", shard, partition));
+        int[] next = partitionMap.clone();
+        next[partition] = shard;
+        partitionMap = next;
+        log.info("Partition reassigned - partition={}, shard={}", partition, shard);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.map-refresh-interval:PT10S}")
+    public void refreshPartitionMap() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int[] next = loadPartitionMap(false);
+            if (!Arrays.equals(next, partitionMap)) {
+                log.info("Partition map changed - shards={}", shardCount);
+            }
+            partitionMap = next;
+        } catch (RuntimeException e) {
+            log.warn("Partition map refresh failed, keeping the current one - error={}", e.getMessage());
+        }
+    }
+
+    // Missing rows are seeded with partition % shards once, so adding a shard later never
+    // silently remaps existing partitions
+    private int[] loadPartitionMap(boolean seed) {
+        return onShard(0, () -> {
+            int[] map = new int[partitionCount];
+            Arrays.fill(map, -1);
+            jdbcTemplate.query("SELECT partition_no, shard FROM shard_partitions", rs -> {
+                int partition = rs.getInt(1);
+                if (partition < partitionCount) {
+                    map[partition] = rs.getInt(2);
+                }
+            });
+            List<Object[]> missing = new ArrayList<>();
+            for (int partition = 0; partition < partitionCount; partition++) {
+                if (map[partition] == -1) {
+                    map[partition] = partition % shardCount;
+                    missing.add(new Object[]{partition, map[partition]});
+                } else if (map[partition] >= shardCount) {
+                    throw new IllegalStateException("Partition " + partition + " is mapped to missing shard " + map[partition]);
+                }
+            }
+            if (seed && !missing.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO shard_partitions (partition_no, shard) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE shard = shard", missing);
+                // Another instance may have seeded first; its rows won
+                return loadPartitionMap(false);
+            }
+            return map;
+        });
+    }
+}
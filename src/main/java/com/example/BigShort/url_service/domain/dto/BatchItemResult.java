@@ -0,0 +1,17 @@
+package com.example.BigShort.url_service.domain.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Outcome of one item of a bulk shorten request: either {@code url} or {@code error} is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private URLResponse url;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.example.BigShort.url_service.domain.dto;
+
+import java.util.List;
+
+/**
+ * A batch of short codes whose cached state changed on {@code origin}, as broadcast to the other
+ * instances.
+ *
+ * @param origin   id of the sending instance, fresh on every start
+ * @param sequence 1, 2, 3... per origin; a jump tells the receiver it missed a batch
+ * @param sentAt   epoch millis
+ */
+public record CacheInvalidation(String origin,
+                                long sequence,
+                                List<String> shortCodes,
+                                long sentAt) {
+}
@@ -0,0 +1,36 @@
+package com.example.BigShort.url_service.domain.dto;
+
+/**
+ * One resolved redirect/lookup, as published to the analytics pipeline.
+ *
+ * @param timestamp epoch millis
+ */
+public record ClickEvent(String shortCode,
+                         long timestamp,
+                         String referrer,
+                         UserAgentClass userAgentClass,
+                         String clientIp) {
+
+    public enum UserAgentClass {
+        BOT, MOBILE, DESKTOP, OTHER;
+
+        // Coarse substring checks; good enough for aggregate counts and cheap on the hot path
+        public static UserAgentClass of(String userAgent) {
+            if (userAgent == null || userAgent.isEmpty()) {
+                return OTHER;
+            }
+            String ua = userAgent.toLowerCase();
+            if (ua.contains("bot") || ua.contains("crawl") || ua.contains("spider")
+                    || ua.contains("curl") || ua.contains("wget") || ua.contains("python")) {
+                return BOT;
+            }
+            if (ua.contains("mobi") || ua.contains("android") || ua.contains("iphone")) {
+                return MOBILE;
+            }
+            if (ua.contains("mozilla")) {
+                return DESKTOP;
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.BigShort.url_service.domain.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The minimal slice of a {@code Url} needed to serve a redirect, read straight from the
+ * query as a constructor projection.
+ * Kept small on purpose: one of these lives in the lookup cache per short code.
+ */
+public record RedirectTarget(String originalUrl, LocalDateTime expiresAt, boolean active) {
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    public boolean isServable(LocalDateTime now) {
+        return active && !isExpired(now);
+    }
+}
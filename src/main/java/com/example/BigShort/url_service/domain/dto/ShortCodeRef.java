@@ -0,0 +1,7 @@
+package com.example.BigShort.url_service.domain.dto;
+
+/**
+ * (id, shortCode) pair used by keyset scans over the urls table.
+ */
+public record ShortCodeRef(Long id, String shortCode) {
+}
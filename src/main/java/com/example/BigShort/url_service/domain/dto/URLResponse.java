@@ -1,4 +1,5 @@
 package com.example.BigShort.url_service.domain.dto;
+import com.example.BigShort.url_service.domain.entity.Url;
 import lombok.*;
 import java.time.LocalDateTime;
 
@@ -15,4 +16,16 @@ public class URLResponse {
     private LocalDateTime expiresAt;
     private Boolean isActive;
     private String shortUrl;
+
+    public static URLResponse from(Url url) {
+        return URLResponse.builder()
+                .id(url.getId())
+                .shortCode(url.getShortCode())
+                .originalUrl(url.getOriginalUrl())
+                .createdAt(url.getCreatedAt())
+                .expiresAt(url.getExpiresAt())
+                .isActive(url.getIsActive())
+                .shortUrl(url.getShortUrl())
+                .build();
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.BigShort.url_service.domain.dto;
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UrlStatsResponse {
+    private String shortCode;
+    private long totalClicks;
+    private RollupGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Point> series;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private LocalDateTime bucketStart;
+        private long clicks;
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.BigShort.url_service.domain.entity;
 import com.example.BigShort.url_service.util.Base62Encoder;
+import com.example.BigShort.url_service.util.UrlFingerprint;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "urls")
+// Mirrors db/migration (the schema source of truth); Hibernate only validates against it
+@Table(name = "urls", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_urls_short_code", columnNames = "short_code"),
+        @UniqueConstraint(name = "uk_urls_short_url", columnNames = "short_url")
+}, indexes = {
+        @Index(name = "idx_urls_created_at", columnList = "created_at"),
+        @Index(name = "idx_urls_active_expires_at", columnList = "is_active, expires_at"),
+        @Index(name = "idx_urls_url_hash", columnList = "url_hash"),
+        @Index(name = "idx_urls_deactivated_at", columnList = "deactivated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Url {
+public class Url implements Persistable<Long> {
 
+    // Assigned by IdAllocator before insert, so the short code is known up front
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "short_code", length = 32, nullable = true)
@@ -33,4 +45,30 @@ public class Url {
 
     @Column(name = "short_url", nullable = false)
     private String shortUrl;
+
+    @Column(name = "deactivated_at")
+    private LocalDateTime deactivatedAt;
+
+    // SHA-256 of the normalized original URL (UrlFingerprint); null for custom codes and when dedup is off
+    @Column(name = "url_hash", length = UrlFingerprint.LENGTH)
+    private byte[] urlHash;
+
+    // Ids are assigned, so Spring Data can't tell new from detached by a null id;
+    // without this save() would merge (SELECT + INSERT) instead of persist.
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
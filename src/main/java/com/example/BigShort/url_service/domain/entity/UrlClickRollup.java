@@ -0,0 +1,23 @@
+package com.example.BigShort.url_service.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Click count of one short code in one minute/hour/day bucket.
+ * Written only by batched upserts from ClickRollupFlusher.
+ */
+@Entity
+@Table(name = "url_click_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UrlClickRollup {
+
+    @EmbeddedId
+    private UrlClickRollupId id;
+
+    @Column(name = "clicks", nullable = false)
+    private Long clicks;
+}
@@ -0,0 +1,8 @@
+package com.example.BigShort.url_service.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(int maxSize) {
+        super("Batch exceeds the maximum of " + maxSize
+                + " items; send larger batches as application/x-ndjson.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.BigShort.url_service.exception;
+
+public class InvalidShortCodeException extends RuntimeException {
+    public InvalidShortCodeException(String code, String reason) {
+        super("The custom short code '" + code + "' is invalid: " + reason);
+    }
+}
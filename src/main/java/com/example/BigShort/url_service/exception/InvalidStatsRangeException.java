@@ -0,0 +1,7 @@
+package com.example.BigShort.url_service.exception;
+
+public class InvalidStatsRangeException extends RuntimeException {
+    public InvalidStatsRangeException(String message) {
+        super(message);
+    }
+}
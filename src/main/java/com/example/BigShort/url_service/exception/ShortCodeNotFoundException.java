@@ -0,0 +1,8 @@
+package com.example.BigShort.url_service.exception;
+
+public class ShortCodeNotFoundException extends RuntimeException {
+    public ShortCodeNotFoundException(String code) {
+        // No stack trace: scanners make this the most frequently thrown exception in the app
+        super("Short code '" + code + "' not found.", null, false, false);
+    }
+}
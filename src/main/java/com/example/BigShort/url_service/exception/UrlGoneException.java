@@ -0,0 +1,7 @@
+package com.example.BigShort.url_service.exception;
+
+public class UrlGoneException extends RuntimeException {
+    public UrlGoneException(String code) {
+        super("Short code '" + code + "' is expired or has been deactivated.");
+    }
+}
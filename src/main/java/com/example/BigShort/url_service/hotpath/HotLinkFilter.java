@@ -0,0 +1,135 @@
+package com.example.BigShort.url_service.hotpath;
+
+import com.example.BigShort.url_service.analytics.ClickTracker;
+import com.example.BigShort.url_service.cache.HotKeyDetector;
+import com.example.BigShort.url_service.hotpath.HotLinkResponses.HotLink;
+import com.example.BigShort.url_service.service.impl.UrlServiceMetrics;
+import com.example.BigShort.url_service.service.impl.UrlServiceMetrics.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers {@code GET /r/{shortCode}} and {@code GET /api/{shortCode}} for hot (pinned) codes
+ * without going through the dispatcher servlet: no handler mapping, argument resolution,
+ * {@code URLResponse} or Jackson per request, just the status, the {@code Location} value and
+ * the pre-serialized info body from {@link HotLinkResponses}.
+ * <p>
+ * Everything else passes through untouched: codes that are not pinned, expired or inactive ones
+ * (the normal path produces their 410), and info lookups whose body has not been captured yet.
+ * Runs after rate limiting and security (their headers still apply) and keeps what the normal
+ * path records: clicks, hot-key sampling for redirects, {@code bigshort.url.operations} and the
+ * {@code http.server.requests} uri tag. Requests answered here are counted in
+ * {@code bigshort.hotlinks.served} (endpoint = redirect | info).
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HotLinkFilter extends OncePerRequestFilter {
+
+    private static final String REDIRECT_PREFIX = "/r/";
+    private static final String INFO_PREFIX = "/api/";
+
+    private final HotLinkResponses responses;
+    private final ClickTracker clickTracker;
+    private final HotKeyDetector hotKeyDetector;
+    private final UrlServiceMetrics metrics;
+    private final boolean enabled;
+    private final int redirectStatus;
+    private final Counter redirectsServed;
+    private final Counter infoServed;
+
+    public HotLinkFilter(HotLinkResponses responses,
+                         ClickTracker clickTracker,
+                         HotKeyDetector hotKeyDetector,
+                         UrlServiceMetrics metrics,
+                         @Value("${app.hotkeys.fast-path.enabled:true}") boolean enabled,
+                         @Value("${app.redirect.status:302}") int redirectStatus,
+                         MeterRegistry meterRegistry) {
+        this.responses = responses;
+        this.clickTracker = clickTracker;
+        this.hotKeyDetector = hotKeyDetector;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.redirectStatus = redirectStatus;     // validated by RedirectController
+        this.redirectsServed = servedCounter(meterRegistry, "redirect");
+        this.infoServed = servedCounter(meterRegistry, "info");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        boolean redirect = uri.startsWith(REDIRECT_PREFIX);
+        if (!redirect && !uri.startsWith(INFO_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        // A path with more segments can never be a pinned code
+        String shortCode = uri.substring(redirect ? REDIRECT_PREFIX.length() : INFO_PREFIX.length());
+        HotLink link = responses.get(shortCode);
+        if (link == null || !link.isServable(System.currentTimeMillis())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (redirect) {
+            hotKeyDetector.record(shortCode);
+            response.setStatus(redirectStatus);
+            response.setHeader(HttpHeaders.LOCATION, link.location());
+            response.setContentLength(0);
+            served(request, shortCode, "/r/{shortCode}");
+            metrics.record(Operation.REDIRECT, null, start);
+            redirectsServed.increment();
+            return;
+        }
+
+        byte[] body = link.infoBody();
+        if (body == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        served(request, shortCode, "/api/{shortCode}");
+        metrics.record(Operation.INFO, null, start);
+        infoServed.increment();
+    }
+
+    private void served(HttpServletRequest request, String shortCode, String pathPattern) {
+        clickTracker.record(shortCode, request);
+        // Same uri tag as the controller mapping would give http.server.requests
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(pathPattern));
+    }
+
+    private static Counter servedCounter(MeterRegistry meterRegistry, String endpoint) {
+        return Counter.builder("bigshort.hotlinks.served")
+                .description("Requests for hot codes answered from precomputed responses")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.BigShort.url_service.hotpath;
+
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ready-made responses for the codes pinned in {@link UrlCache}, served by {@link HotLinkFilter}.
+ * <p>
+ * A {@link HotLink} is built from the pinned {@link RedirectTarget} on first use: the redirect
+ * needs only its URL as the {@code Location} value and its deadline as epoch millis. The info
+ * body is the JSON the endpoint itself produced, kept by {@link #rememberInfo} the next time a
+ * lookup of the code goes the normal way, serialized with the application's ObjectMapper so the
+ * bytes are the ones Spring MVC would have written. Each link remembers the target it was built
+ * from and is dropped as soon as the cache pins a different one (re-pinned after an
+ * invalidation) or none at all, so deactivations reach it as they reach the pinned tier.
+ */
+@Component
+public class HotLinkResponses {
+
+    private static final Logger log = LoggerFactory.getLogger(HotLinkResponses.class);
+    private final UrlCache urlCache;
+    private final ObjectMapper objectMapper;
+    private final int maxLinks;
+    private final ConcurrentMap<String, HotLink> links = new ConcurrentHashMap<>();
+
+    public HotLinkResponses(UrlCache urlCache,
+                            ObjectMapper objectMapper,
+                            @Value("${app.hotkeys.top-k:2000}") int topK) {
+        this.urlCache = urlCache;
+        this.objectMapper = objectMapper;
+        this.maxLinks = Math.max(16, topK * 2);
+    }
+
+    public static final class HotLink {
+
+        private final RedirectTarget target;
+        private final long deadlineMillis;
+        private volatile byte[] infoBody;
+
+        private HotLink(RedirectTarget target) {
+            this.target = target;
+            this.deadlineMillis = target.expiresAt() == null ? Long.MAX_VALUE
+                    : target.expiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        // False once the link expired or for an inactive one: those take the normal path to their 410
+        public boolean isServable(long nowMillis) {
+            return target.active() && nowMillis < deadlineMillis;
+        }
+
+        public String location() {
+            return target.originalUrl();
+        }
+
+        // Serialized URLResponse, or null until a normal lookup has produced one
+        public byte[] infoBody() {
+            return infoBody;
+        }
+    }
+
+    /**
+     * Responses for {@code shortCode} while it is pinned; null otherwise.
+     */
+    public HotLink get(String shortCode) {
+        RedirectTarget target = urlCache.getPinned(shortCode);
+        if (target == null) {
+            return null;
+        }
+        HotLink link = links.get(shortCode);
+        if (link == null || link.target != target) {
+            link = new HotLink(target);
+            links.put(shortCode, link);
+            if (links.size() > maxLinks) {
+                prune();
+            }
+        }
+        return link;
+    }
+
+    /**
+     * Keeps the serialized info response of a pinned code, if it agrees with the pinned target
+     * (a lookup that raced a deactivation must not outlive it).
+     */
+    public void rememberInfo(String shortCode, URLResponse response) {
+        HotLink link = get(shortCode);
+        if (link == null || link.infoBody != null || !describes(response, link.target)) {
+            return;
+        }
+        try {
+            link.infoBody = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot precompute info response - shortCode={}, error={}", shortCode, e.getMessage());
+        }
+    }
+
+    public int size() {
+        return links.size();
+    }
+
+    // Links of codes no longer pinned, or pinned with another target
+    private void prune() {
+        links.entrySet().removeIf(entry -> urlCache.getPinned(entry.getKey()) != entry.getValue().target);
+    }
+
+    private static boolean describes(URLResponse response, RedirectTarget target) {
+        return Objects.equals(response.getOriginalUrl(), target.originalUrl())
+                && Objects.equals(response.getExpiresAt(), target.expiresAt())
+                && Boolean.valueOf(target.active()).equals(response.getIsActive());
+    }
+}
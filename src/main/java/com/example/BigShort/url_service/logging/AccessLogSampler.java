@@ -0,0 +1,98 @@
+package com.example.BigShort.url_service.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-endpoint sampling of request logging.
+ * <p>
+ * {@code app.logging.sample-rates} lists {@code METHOD /path-prefix=N} rules; the first rule
+ * matching a request keeps the INFO and finer logs of 1 request in N. The decision is taken once
+ * as the request arrives and applied by {@link SampledOutTurboFilter} to every logger on the
+ * request thread, so a sampled request logs all of its controller and service lines and the
+ * others none of them. WARN and ERROR are never sampled; requests matching no rule log in full.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccessLogSampler extends OncePerRequestFilter {
+
+    private static final ThreadLocal<Boolean> SAMPLED_OUT = new ThreadLocal<>();
+
+    private final List<Rule> rules;
+
+    public AccessLogSampler(@Value("${app.logging.sample-rates:}") List<String> sampleRates) {
+        List<Rule> parsed = new ArrayList<>(sampleRates.size());
+        for (String sampleRate : sampleRates) {
+            if (!sampleRate.isBlank()) {
+                parsed.add(Rule.parse(sampleRate));
+            }
+        }
+        this.rules = List.copyOf(parsed);
+    }
+
+    record Rule(String method, String pathPrefix, int rate) {
+
+        // "POST /api/shorten=10"
+        static Rule parse(String text) {
+            int space = text.indexOf(' ');
+            int equals = text.lastIndexOf('=');
+            if (space < 1 || equals < space) {
+                throw new IllegalArgumentException("app.logging.sample-rates entries look like 'POST /api/shorten=10', got '" + text + "'");
+            }
+            int rate = Integer.parseInt(text.substring(equals + 1).trim());
+            if (rate < 1) {
+                throw new IllegalArgumentException("app.logging.sample-rates rate must be at least 1, got '" + text + "'");
+            }
+            return new Rule(text.substring(0, space).trim(), text.substring(space + 1, equals).trim(), rate);
+        }
+
+        boolean matches(HttpServletRequest request) {
+            return method.equalsIgnoreCase(request.getMethod()) && request.getRequestURI().startsWith(pathPrefix);
+        }
+    }
+
+    /**
+     * True while the current thread serves a request left out of the sample.
+     */
+    static boolean isSampledOut() {
+        return SAMPLED_OUT.get() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!sampledOut(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SAMPLED_OUT.set(Boolean.TRUE);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SAMPLED_OUT.remove();
+        }
+    }
+
+    private boolean sampledOut(HttpServletRequest request) {
+        for (Rule rule : rules) {
+            if (rule.matches(request)) {
+                return rule.rate() > 1 && ThreadLocalRandom.current().nextInt(rule.rate()) != 0;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.BigShort.url_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Denies INFO and finer events on threads serving a request {@link AccessLogSampler} left out of
+ * the sample. Runs before the event is built, so dropped lines cost a ThreadLocal read and no
+ * formatting; {@code log.isInfoEnabled()} answers false for them too.
+ */
+public class SampledOutTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != null && level.levelInt < Level.WARN_INT && AccessLogSampler.isSampledOut()) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.BigShort.url_service.ratelimit;
+
+import com.example.BigShort.url_service.util.ClientIpResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting of the public API ({@code /api/**}) and redirects ({@code /r/**}).
+ * <p>
+ * Clients are keyed by {@code app.ratelimit.api-key-header} when it is set and present, else by
+ * the remote address. Forwarded headers only count once the container has applied them for a
+ * trusted proxy ({@link ClientIpResolver}), so rotating {@code X-Forwarded-For} does not give a
+ * client a fresh bucket. Reads (GET/HEAD) and writes (everything else) draw from
+ * separate {@link RateLimiter}s, so a client shortening at its limit can still resolve links.
+ * A refused request gets 429 with {@code Retry-After} before it reaches security, controllers or
+ * the database. Refusals are counted in {@code bigshort.ratelimit.rejected} (bucket = read | write).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String API_KEY_PREFIX = "key:";
+
+    private final boolean enabled;
+    private final String apiKeyHeader;
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final Counter readRejected;
+    private final Counter writeRejected;
+
+    public RateLimitFilter(@Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.api-key-header:}") String apiKeyHeader,
+                           @Value("${app.ratelimit.read.permits-per-second:50}") double readRate,
+                           @Value("${app.ratelimit.read.burst:100}") int readBurst,
+                           @Value("${app.ratelimit.write.permits-per-second:5}") double writeRate,
+                           @Value("${app.ratelimit.write.burst:20}") int writeBurst,
+                           @Value("${app.ratelimit.max-keys:1000000}") long maxKeys,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.apiKeyHeader = apiKeyHeader.isBlank() ? null : apiKeyHeader;
+        this.readLimiter = new RateLimiter(readRate, readBurst, maxKeys);
+        this.writeLimiter = new RateLimiter(writeRate, writeBurst, maxKeys);
+        this.readRejected = rejectedCounter(meterRegistry, "read");
+        this.writeRejected = rejectedCounter(meterRegistry, "write");
+        Gauge.builder("bigshort.ratelimit.keys", this, f -> f.readLimiter.keys() + f.writeLimiter.keys())
+                .description("Client buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !(uri.startsWith("/api/") || uri.startsWith("/r/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        String client = clientKey(request);
+        long waitNanos = (read ? readLimiter : writeLimiter).tryAcquire(client);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        (read ? readRejected : writeRejected).increment();
+        log.debug("Rate limited - client={}, bucket={}, uri={}", client, read ? "read" : "write", request.getRequestURI());
+        reject(request, response, waitNanos);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (apiKeyHeader != null) {
+            String apiKey = request.getHeader(apiKeyHeader);
+            if (apiKey != null && !apiKey.isEmpty()) {
+                return API_KEY_PREFIX + apiKey;
+            }
+        }
+        return ClientIpResolver.resolve(request);
+    }
+
+    // Same body shape as GlobalExceptionHandler, written by hand: this is the path a flood takes
+    private static void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now()
+                + "\",\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in "
+                + retryAfterSeconds + "s\",\"path\":\"" + request.getRequestURI().replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String bucket) {
+        return Counter.builder("bigshort.ratelimit.rejected")
+                .description("Requests refused with 429")
+                .tag("bucket", bucket)
+                .register(meterRegistry);
+    }
+}
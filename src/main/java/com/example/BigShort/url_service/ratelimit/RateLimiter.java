@@ -0,0 +1,61 @@
+package com.example.BigShort.url_service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket per client key, {@code permitsPerSecond} refill and {@code burst} capacity.
+ * <p>
+ * A bucket is stored as a single long (GCRA: the time at which the bucket would be full again if
+ * nothing else arrived), updated with a CAS loop, so keys never share a lock and a rejected
+ * request writes nothing - a flooding client only reads its own entry. Buckets live in a Caffeine
+ * cache bounded to {@code maxKeys} and expired after being idle for the time a bucket takes to
+ * refill: by then a fresh bucket is identical, so idle eviction loses nothing; eviction by size
+ * (under a key flood) at worst hands an evicted key a full bucket again.
+ */
+class RateLimiter {
+
+    private final long intervalNanos;   // one permit
+    private final long toleranceNanos;  // burst - 1 permits ahead of schedule
+    private final Cache<String, AtomicLong> buckets;
+
+    RateLimiter(double permitsPerSecond, int burst, long maxKeys) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate limits need permits-per-second > 0 and burst >= 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(Math.max(toleranceNanos + intervalNanos, 1_000_000_000L)))
+                .build();
+    }
+
+    /**
+     * Takes a permit for {@code key}.
+     *
+     * @return 0 if granted, otherwise nanoseconds until one will be
+     */
+    long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now > 0 ? fullAt : now;
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    long keys() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import com.example.BigShort.url_service.domain.entity.UrlClickRollup;
+import com.example.BigShort.url_service.domain.entity.UrlClickRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClickRollupRepository extends JpaRepository<UrlClickRollup, UrlClickRollupId>, ClickRollupUpsert {
+
+    // Series for one code, one granularity, inclusive range
+    @Query("select r from UrlClickRollup r where r.id.shortCode = :shortCode and r.id.granularity = :granularity " +
+            "and r.id.bucketStart between :from and :to order by r.id.bucketStart")
+    List<UrlClickRollup> findSeries(@Param("shortCode") String shortCode,
+                                    @Param("granularity") RollupGranularity granularity,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    // All-time total from the coarsest rollup: one row per day
+    @Query("select coalesce(sum(r.clicks), 0) from UrlClickRollup r " +
+            "where r.id.shortCode = :shortCode and r.id.granularity = com.example.BigShort.url_service.domain.entity.RollupGranularity.DAY")
+    long totalClicks(@Param("shortCode") String shortCode);
+
+    // Retention for the fine-grained buckets
+    @Modifying
+    @Transactional
+    @Query("delete from UrlClickRollup r where r.id.granularity = :granularity and r.id.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") RollupGranularity granularity, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,15 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface ClickRollupUpsert {
+
+    // Adds each delta to its (shortCode, granularity, bucketStart) row in one JDBC batch
+    void addClicks(RollupGranularity granularity, Map<RollupKey, Long> deltas);
+
+    record RollupKey(String shortCode, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring Data fragment behind {@link ClickRollupRepository#addClicks}: plain JDBC batch upserts,
+ * since JPA has no portable upsert and loading rows just to increment them would double the I/O.
+ */
+@RequiredArgsConstructor
+public class ClickRollupUpsertImpl implements ClickRollupUpsert {
+
+    private static final String UPSERT =
+            "INSERT INTO url_click_rollups (short_code, granularity, bucket_start, clicks) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE clicks = clicks + VALUES(clicks)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addClicks(RollupGranularity granularity, Map<RollupKey, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, clicks) -> rows.add(new Object[]{
+                key.shortCode(), granularity.name(), Timestamp.valueOf(key.bucketStart()), clicks}));
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.entity.IdSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    // SELECT ... FOR UPDATE, so concurrent instances lease disjoint blocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from IdSequence s where s.name = :name")
+    Optional<IdSequence> findForUpdate(@Param("name") String name);
+}
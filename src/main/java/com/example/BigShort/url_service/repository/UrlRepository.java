@@ -1,9 +1,24 @@
 package com.example.BigShort.url_service.repository;
 
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.domain.dto.ShortCodeRef;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import com.example.BigShort.url_service.domain.entity.Url;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,10 +27,63 @@ public interface UrlRepository extends JpaRepository<Url, Long> {
     // Retrieve full entity by short code
     Optional<Url> findByShortCode(String shortCode);
 
+    // -------------------------------------------------------
+    // Lookup path: constructor projections, no managed entity (no snapshot, no dirty check).
+    // SUPPORTS runs them without opening a transaction of their own; the COMMIT flush
+    // mode keeps them from flushing an enclosing transaction's pending writes first.
+    // -------------------------------------------------------
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select new com.example.BigShort.url_service.domain.dto.RedirectTarget(u.originalUrl, u.expiresAt, u.isActive) " +
+            "from Url u where u.shortCode = :shortCode")
+    Optional<RedirectTarget> findRedirectTarget(@Param("shortCode") String shortCode);
+
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select new com.example.BigShort.url_service.domain.dto.URLResponse(" +
+            "u.id, u.shortCode, u.originalUrl, u.createdAt, u.expiresAt, u.isActive, u.shortUrl) " +
+            "from Url u where u.shortCode = :shortCode")
+    Optional<URLResponse> findUrlInfo(@Param("shortCode") String shortCode);
+
     // Check if a short code already exists
     boolean existsByShortCode(String shortCode);
 
     // Check if a full short URL already exists
     boolean existsByShortUrl(String shortUrl);
 
+    // Highest id in use, to seed the id sequence
+    @Query("select coalesce(max(u.id), 0) from Url u")
+    long findMaxId();
+
+    // Keyset page of (id, shortCode) after the given id, for full-table scans
+    @Query("select new com.example.BigShort.url_service.domain.dto.ShortCodeRef(u.id, u.shortCode) " +
+            "from Url u where u.id > :afterId order by u.id")
+    List<ShortCodeRef> findShortCodesAfter(@Param("afterId") long afterId, Pageable page);
+
+    // Short codes created at or after the given time
+    @Query("select u.shortCode from Url u where u.createdAt >= :since")
+    List<String> findShortCodesCreatedSince(@Param("since") LocalDateTime since);
+
+    // Active rows whose expiry has passed (idx_urls_active_expires_at)
+    @Query("select new com.example.BigShort.url_service.domain.dto.ShortCodeRef(u.id, u.shortCode) " +
+            "from Url u where u.isActive = true and u.expiresAt <= :now")
+    List<ShortCodeRef> findExpiredActive(@Param("now") LocalDateTime now, Pageable page);
+
+    // Bulk deactivate; rows another instance already deactivated are not counted
+    @Modifying
+    @Query("update Url u set u.isActive = false, u.deactivatedAt = :now where u.id in :ids and u.isActive = true")
+    int deactivateAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Short codes deactivated at or after the given time (idx_urls_deactivated_at)
+    @Query("select u.shortCode from Url u where u.deactivatedAt >= :since")
+    List<String> findShortCodesDeactivatedSince(@Param("since") LocalDateTime since);
+
+    // Active rows with the given url_hash (idx_urls_url_hash), oldest first
+    @Query("select u from Url u where u.urlHash = :hash and u.isActive = true order by u.id")
+    List<Url> findActiveByUrlHash(@Param("hash") byte[] hash, Pageable page);
+
+    // Deactivated rows that expired before the cutoff, for purging
+    @Query("select u.id from Url u where u.isActive = false and u.expiresAt < :cutoff")
+    List<Long> findExpiredInactiveIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
 }
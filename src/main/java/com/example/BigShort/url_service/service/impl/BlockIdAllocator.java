@@ -0,0 +1,168 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.entity.IdSequence;
+import com.example.BigShort.url_service.repository.IdSequenceRepository;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.service.interfaces.IdAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from blocks leased from the {@code id_sequence} table (hi/lo style).
+ * <p>
+ * A lease is one short {@code SELECT ... FOR UPDATE} + {@code UPDATE} in its own transaction,
+ * so instances never overlap. Within the JVM ids come from memory under a lock; the next
+ * block is leased in the background once half of the current one is used, so request
+ * threads almost never wait on the database. Ids are unique but not gap-free: whatever is
+ * left of a block when the instance stops is skipped. With sharding on, the sequence lives on
+ * shard 0 and ids are sequence values the router shifts its partition bits into.
+ * <p>
+ * {@code bigshort.id.allocate} times each call as the caller sees it (lock and block waits
+ * included); {@code bigshort.id.lease} times the lease transactions.
+ */
+@Service
+public class BlockIdAllocator implements IdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockIdAllocator.class);
+    static final String URL_SEQUENCE = "urls";
+
+    private final IdSequenceRepository sequenceRepository;
+    private final UrlRepository urlRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate leaseTransaction;
+    private final Executor prefetchExecutor;
+    private final int blockSize;
+    private final Timer allocateTimer;
+    private final Timer leaseTimer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long limit;
+    private CompletableFuture<Long> prefetch;
+
+    public BlockIdAllocator(IdSequenceRepository sequenceRepository,
+                            UrlRepository urlRepository,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("applicationTaskExecutor") Executor prefetchExecutor,
+                            @Value("${app.id.block-size:10000}") int blockSize,
+                            MeterRegistry meterRegistry) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("app.id.block-size must be positive");
+        }
+        this.sequenceRepository = sequenceRepository;
+        this.urlRepository = urlRepository;
+        this.shardRouter = shardRouter;
+        this.prefetchExecutor = prefetchExecutor;
+        this.blockSize = blockSize;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.allocateTimer = Timer.builder("bigshort.id.allocate")
+                .description("Time to hand out ids, including waits for the lock or a new block")
+                .register(meterRegistry);
+        this.leaseTimer = Timer.builder("bigshort.id.lease")
+                .description("Id block lease transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long nextId() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            return takeOne();
+        } finally {
+            lock.unlock();
+            allocateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public long[] nextIds(int count) {
+        long start = System.nanoTime();
+        long[] ids = new long[count];
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                ids[i] = takeOne();
+            }
+        } finally {
+            lock.unlock();
+            allocateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return ids;
+    }
+
+    // Caller holds the lock
+    private long takeOne() {
+        if (next >= limit) {
+            long start = awaitNextBlock();
+            next = start;
+            limit = start + blockSize;
+        }
+        long id = next++;
+        if (prefetch == null && limit - next < blockSize / 2) {
+            prefetch = CompletableFuture.supplyAsync(this::lease, prefetchExecutor);
+        }
+        return id;
+    }
+
+    private long awaitNextBlock() {
+        CompletableFuture<Long> pending = prefetch;
+        prefetch = null;
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (RuntimeException e) {
+                log.warn("Prefetched id block failed, leasing synchronously - error={}", e.getMessage());
+            }
+        }
+        return lease();
+    }
+
+    // -------------------------------------------------------
+    // Lease [start, start + blockSize) from the shared sequence row
+    // -------------------------------------------------------
+    private long lease() {
+        long start = System.nanoTime();
+        try {
+            return leaseOnce();
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the sequence row at the same time; it exists now
+            return leaseOnce();
+        } finally {
+            leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long leaseOnce() {
+        Long start = shardRouter.onShard(0, () -> leaseTransaction.execute(status -> {
+            IdSequence sequence = sequenceRepository.findForUpdate(URL_SEQUENCE)
+                    .orElseGet(() -> IdSequence.builder()
+                            .name(URL_SEQUENCE)
+                            .nextVal(urlRepository.findMaxId() + 1)
+                            .build());
+            long blockStart = sequence.getNextVal();
+            sequence.setNextVal(blockStart + blockSize);
+            sequenceRepository.saveAndFlush(sequence);
+            return blockStart;
+        }));
+        log.info("Leased id block - start={}, size={}", start, blockSize);
+        return start;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.cache.ShortCodeBloomFilter;
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.UrlStatsResponse;
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import com.example.BigShort.url_service.domain.entity.UrlClickRollup;
+import com.example.BigShort.url_service.exception.InvalidStatsRangeException;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.repository.ClickRollupRepository;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.service.interfaces.StatsService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads click statistics from the pre-aggregated rollups: cost is O(buckets), never O(clicks).
+ * Figures lag real time by up to {@code app.stats.flush-interval}. Rollups live on shard 0;
+ * only the existence check goes to the link's shard.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClickStatsService implements StatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickStatsService.class);
+
+    private final ClickRollupRepository rollupRepository;
+    private final UrlRepository urlRepository;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.stats.max-points:1000}")
+    private int maxPoints;
+
+    @Override
+    public UrlStatsResponse getStats(String shortCode, RollupGranularity granularity,
+                                     LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new InvalidStatsRangeException("'from' must not be after 'to'");
+        }
+        long points = granularity.bucketsBetween(from, to);
+        if (points > maxPoints) {
+            throw new InvalidStatsRangeException("Range spans " + points + " " + granularity
+                    + " buckets; the maximum is " + maxPoints + ", use a coarser granularity");
+        }
+        if (!shortCodeFilter.mightContain(shortCode) || !shardRouter.onShard(shardRouter.shardOfCode(shortCode),
+                () -> urlRepository.existsByShortCode(shortCode))) {
+            throw new ShortCodeNotFoundException(shortCode);
+        }
+
+        LocalDateTime firstBucket = granularity.bucketOf(from);
+        LocalDateTime lastBucket = granularity.bucketOf(to);
+
+        Map<LocalDateTime, Long> stored = new HashMap<>();
+        for (UrlClickRollup rollup : rollupRepository.findSeries(shortCode, granularity, firstBucket, lastBucket)) {
+            stored.put(rollup.getId().getBucketStart(), rollup.getClicks());
+        }
+
+        List<UrlStatsResponse.Point> series = new ArrayList<>((int) points);
+        for (LocalDateTime bucket = firstBucket; !bucket.isAfter(lastBucket); bucket = granularity.next(bucket)) {
+            series.add(new UrlStatsResponse.Point(bucket, stored.getOrDefault(bucket, 0L)));
+        }
+
+        log.debug("Stats retrieved - shortCode={}, granularity={}, points={}", shortCode, granularity, series.size());
+
+        return UrlStatsResponse.builder()
+                .shortCode(shortCode)
+                .totalClicks(rollupRepository.totalClicks(shortCode))
+                .granularity(granularity)
+                .from(firstBucket)
+                .to(lastBucket)
+                .series(series)
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.cache.HotKeyDetector;
+import com.example.BigShort.url_service.cache.ShortCodeBloomFilter;
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import com.example.BigShort.url_service.service.impl.UrlServiceMetrics.Operation;
+import com.example.BigShort.url_service.service.interfaces.ReactiveUrlService;
+import com.example.BigShort.url_service.service.interfaces.UrlService;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * URL service for the reactive deployment mode ({@code spring.main.web-application-type=reactive}).
+ * <p>
+ * Redirects and info lookups never block: the lookup cache, hot set and bloom filter are
+ * consulted in memory as before, and a miss is one R2DBC query ({@code app.reactive.r2dbc.*}), with
+ * concurrent misses on a code sharing it. Creation is delegated to {@link URLService} on the
+ * bounded elastic scheduler, so id leasing, dedup, bloom/cache bookkeeping and invalidation stay
+ * in one place; it is the rare path on a redirect-heavy node.
+ * <p>
+ * Reads go to the one R2DBC database: sharding is not supported, and reads do not take the
+ * read-your-writes detour - point {@code app.reactive.r2dbc.url} at the primary unless a replica's lag
+ * is acceptable.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveURLService implements ReactiveUrlService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveURLService.class);
+    private static final String REDIRECT_TARGET_QUERY =
+            "SELECT original_url, expires_at, is_active FROM urls WHERE short_code = :shortCode";
+    private static final String URL_INFO_QUERY =
+            "SELECT id, short_code, original_url, created_at, expires_at, is_active, short_url FROM urls WHERE short_code = :shortCode";
+
+    private final UrlService urlService;
+    private final DatabaseClient databaseClient;
+    private final UrlCache urlCache;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final ShortCodeFormat shortCodeFormat;
+    private final HotKeyDetector hotKeyDetector;
+    private final UrlServiceMetrics metrics;
+    private final Scheduler writeScheduler = Schedulers.boundedElastic();
+    private final ConcurrentMap<String, Mono<RedirectTarget>> loading = new ConcurrentHashMap<>();
+
+    public ReactiveURLService(UrlService urlService,
+                              DatabaseClient databaseClient,
+                              UrlCache urlCache,
+                              ShortCodeBloomFilter shortCodeFilter,
+                              ShortCodeFormat shortCodeFormat,
+                              HotKeyDetector hotKeyDetector,
+                              UrlServiceMetrics metrics,
+                              @Value("${app.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("Reactive mode reads a single database; it cannot run with app.sharding.enabled=true");
+        }
+        this.urlService = urlService;
+        this.databaseClient = databaseClient;
+        this.urlCache = urlCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.shortCodeFormat = shortCodeFormat;
+        this.hotKeyDetector = hotKeyDetector;
+        this.metrics = metrics;
+    }
+
+    // -------------------------------------------------------
+    // CREATE (blocking service, off the event loop)
+    // -------------------------------------------------------
+    @Override
+    public Mono<URLResponse> createUrl(URLRequest request) {
+        return Mono.fromCallable(() -> urlService.createUrl(request)).subscribeOn(writeScheduler);
+    }
+
+    @Override
+    public Mono<URLResponse> createCustomUrl(String customShortCode, URLRequest request) {
+        return Mono.fromCallable(() -> urlService.createCustomUrl(customShortCode, request)).subscribeOn(writeScheduler);
+    }
+
+    // -------------------------------------------------------
+    // GET URL INFO
+    // -------------------------------------------------------
+    @Override
+    public Mono<URLResponse> getUrlInfo(String shortCode) {
+        return timed(Operation.INFO, Mono.defer(() -> {
+            if (!shortCodeFormat.isWellFormed(shortCode) || !shortCodeFilter.mightContain(shortCode)) {
+                log.debug("URL not found (bloom filter) - shortCode={}", shortCode);
+                return Mono.error(new ShortCodeNotFoundException(shortCode));
+            }
+            return db(Operation.INFO, databaseClient.sql(URL_INFO_QUERY)
+                    .bind("shortCode", shortCode)
+                    .map(ReactiveURLService::toResponse)
+                    .one())
+                    .switchIfEmpty(Mono.error(() -> {
+                        log.warn("URL not found - shortCode={}", shortCode);
+                        return new ShortCodeNotFoundException(shortCode);
+                    }))
+                    .doOnNext(response -> log.info("URL info retrieved - shortCode={}, isActive={}, hasExpiry={}",
+                            shortCode, response.getIsActive(), response.getExpiresAt() != null));
+        }));
+    }
+
+    // -------------------------------------------------------
+    // RESOLVE REDIRECT (hot path, read-through cache)
+    // -------------------------------------------------------
+    @Override
+    public Mono<String> resolveRedirect(String shortCode) {
+        return timed(Operation.REDIRECT, Mono.defer(() -> {
+            if (!shortCodeFormat.isWellFormed(shortCode)) {
+                return Mono.error(new ShortCodeNotFoundException(shortCode));
+            }
+            hotKeyDetector.record(shortCode);
+
+            RedirectTarget target = urlCache.get(shortCode);
+            if (target != null) {
+                return servable(shortCode, target);
+            }
+            if (!shortCodeFilter.mightContain(shortCode)) {
+                return Mono.error(new ShortCodeNotFoundException(shortCode));
+            }
+            return load(shortCode).flatMap(loaded -> servable(shortCode, loaded));
+        }));
+    }
+
+    // Concurrent misses on the same code share one query and its outcome; cached before release
+    // unless the code was invalidated meanwhile
+    private Mono<RedirectTarget> load(String shortCode) {
+        return loading.computeIfAbsent(shortCode, code -> {
+            log.debug("Redirect cache miss - shortCode={}", code);
+            long generation = urlCache.generation(code);
+            return db(Operation.REDIRECT, databaseClient.sql(REDIRECT_TARGET_QUERY)
+                    .bind("shortCode", code)
+                    .map(row -> new RedirectTarget(
+                            row.get("original_url", String.class),
+                            row.get("expires_at", LocalDateTime.class),
+                            Boolean.TRUE.equals(row.get("is_active", Boolean.class))))
+                    .one())
+                    .switchIfEmpty(Mono.error(() -> new ShortCodeNotFoundException(code)))
+                    .doOnNext(loaded -> urlCache.putIfCurrent(code, loaded, generation))
+                    .doFinally(signal -> loading.remove(code))
+                    .cache();
+        });
+    }
+
+    private Mono<String> servable(String shortCode, RedirectTarget target) {
+        if (!target.isServable(LocalDateTime.now())) {
+            metrics.gone(target.active());
+            log.debug("Redirect refused - shortCode={}, isActive={}, expiresAt={}",
+                    shortCode, target.active(), target.expiresAt());
+            return Mono.error(new UrlGoneException(shortCode));
+        }
+        return Mono.just(target.originalUrl());
+    }
+
+    // -------------------------------------------------------
+    // HELPERS: metrics, row mapping
+    // -------------------------------------------------------
+    private <T> Mono<T> timed(Operation operation, Mono<T> work) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doOnSuccess(result -> metrics.record(operation, null, start))
+                    .doOnError(e -> metrics.record(operation, e, start));
+        });
+    }
+
+    private <T> Mono<T> db(Operation operation, Mono<T> query) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return query.doFinally(signal -> metrics.recordDb(operation, start));
+        });
+    }
+
+    private static URLResponse toResponse(Readable row) {
+        return URLResponse.builder()
+                .id(row.get("id", Long.class))
+                .shortCode(row.get("short_code", String.class))
+                .originalUrl(row.get("original_url", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .expiresAt(row.get("expires_at", LocalDateTime.class))
+                .isActive(row.get("is_active", Boolean.class))
+                .shortUrl(row.get("short_url", String.class))
+                .build();
+    }
+}
@@ -1,79 +1,131 @@
 package com.example.BigShort.url_service.service.impl;
 
+import com.example.BigShort.url_service.cache.CacheInvalidationBus;
+import com.example.BigShort.url_service.cache.HotKeyDetector;
+import com.example.BigShort.url_service.cache.ShortCodeBloomFilter;
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.datasource.ReadYourWrites;
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.BatchItemResult;
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
 import com.example.BigShort.url_service.domain.dto.URLRequest;
 import com.example.BigShort.url_service.domain.dto.URLResponse;
 import com.example.BigShort.url_service.domain.entity.Url;
 import com.example.BigShort.url_service.exception.InvalidUrlException;
 import com.example.BigShort.url_service.exception.ShortCodeAlreadyExistsException;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.exception.UrlGoneException;
 import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.service.impl.UrlServiceMetrics.Operation;
+import com.example.BigShort.url_service.service.interfaces.IdAllocator;
 import com.example.BigShort.url_service.service.interfaces.UrlService;
-import com.example.BigShort.url_service.util.Base62Encoder;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import com.example.BigShort.url_service.util.UrlFingerprint;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class URLService implements UrlService {
 
     private static final Logger log = LoggerFactory.getLogger(URLService.class);
+    private static final Pattern HTTP_URL = Pattern.compile("^(http|https)://.*$");
+    private static final Pattern SENSITIVE_PARAM = Pattern.compile("([?&])(token|key|secret|password|auth)=[^&]*");
     private final UrlRepository urlRepository;
+    private final UrlCache urlCache;
+    private final ShortCodeBloomFilter shortCodeFilter;
+    private final IdAllocator idAllocator;
+    private final ShortCodeFormat shortCodeFormat;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final UrlDeduplicator urlDeduplicator;
+    private final ReadYourWrites readYourWrites;
+    private final ShardRouter shardRouter;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final HotKeyDetector hotKeyDetector;
+    private final UrlServiceMetrics metrics;
 
     @Value("${app.shortener.domain}")
     private String domain;  // e.g. https://bigshort.com/r/
 
+    @Value("${app.batch.chunk-size:500}")
+    private int batchChunkSize;  // items per transaction / JDBC batch
+
     // -------------------------------------------------------
     // CREATE SHORT URL (standard)
     // -------------------------------------------------------
+    // Runs on the shard of the URL's partition; the id is allocated (on shard 0) before the
+    // write transaction opens, as a transaction cannot change shards
     @Override
-    @Transactional
     public URLResponse createUrl(URLRequest request) {
-        log.info("Creating short URL - urlLength={}, hasExpiry={}",
+        return metrics.time(Operation.CREATE, () -> create(request));
+    }
+
+    private URLResponse create(URLRequest request) {
+        log.debug("Creating short URL - urlLength={}, hasExpiry={}",
                 request.getOriginalUrl() != null ? request.getOriginalUrl().length() : 0,
                 request.getExpiresAt() != null);
 
-        // Validation
-        if (request.getOriginalUrl() == null || request.getOriginalUrl().isBlank()) {
-            log.warn("URL creation failed - reason=empty_url");
-            throw new InvalidUrlException("Original URL cannot be empty");
-        }
-
-        if (!request.getOriginalUrl().matches("^(http|https)://.*$")) {
-            log.warn("URL creation failed - reason=invalid_format, url={}",
-                    sanitizeUrl(request.getOriginalUrl()));
-            throw new InvalidUrlException(request.getOriginalUrl());
-        }
+        validateOriginalUrl(request);
+
+        byte[] urlHash = urlHashOf(request.getOriginalUrl());
+        int partition = partitionOf(urlHash);
+        return shardRouter.onShard(shardRouter.shardOfPartition(partition), () -> {
+            Optional<URLResponse> existing = urlDeduplicator.findExisting(urlHash, request.getOriginalUrl(), request.getExpiresAt());
+            if (existing.isPresent()) {
+                log.info("Short URL reused (dedup) - shortCode={}", existing.get().getShortCode());
+                return existing.get();
+            }
+            long id = shardRouter.composeId(idAllocator.nextId(), partition);
+            return metrics.db(Operation.CREATE, () -> writeTransaction().execute(status -> insertUrl(request, id, urlHash)));
+        });
+    }
 
+    private URLResponse insertUrl(URLRequest request, long id, byte[] urlHash) {
         try {
+            String shortCode = shortCodeFormat.generate(id);
+
             Url url = Url.builder()
+                    .id(id)
                     .originalUrl(request.getOriginalUrl())
                     .createdAt(LocalDateTime.now())
                     .expiresAt(request.getExpiresAt())
                     .isActive(true)
-                    .shortCode("TEMP")
-                    .shortUrl("TEMP")
+                    .shortCode(shortCode)
+                    .shortUrl(domain + shortCode)
+                    .urlHash(storedUrlHash(urlHash))
                     .build();
 
-            log.debug("Saving URL entity to generate ID");
-            url = urlRepository.saveAndFlush(url);
-
-            String shortCode = Base62Encoder.encode(url.getId());
-            url.setShortCode(shortCode);
-            url.setShortUrl(domain + shortCode);
-
-            log.debug("Updating URL with generated shortCode - id={}, shortCode={}",
-                    url.getId(), shortCode);
+            log.debug("Saving URL entity - id={}, shortCode={}", id, shortCode);
             url = urlRepository.save(url);
+            shortCodeFilter.addAfterCommit(shortCode);
+            cacheInvalidationBus.broadcastAfterCommit(shortCode);
+            urlDeduplicator.rememberAfterCommit(url);
+            readYourWrites.recordWrite(shortCode);
 
             log.info("Short URL created successfully - shortCode={}, id={}, expiresAt={}",
                     shortCode, url.getId(), url.getExpiresAt());
 
-            return mapToResponse(url);
+            return URLResponse.from(url);
 
         } catch (Exception e) {
             log.error("Failed to create short URL - error={}", e.getMessage(), e);
@@ -81,24 +133,177 @@ public class URLService implements UrlService {
         }
     }
 
+    // -------------------------------------------------------
+    // CREATE SHORT URLS IN BULK
+    // -------------------------------------------------------
+    @Override
+    public List<BatchItemResult> createUrls(List<URLRequest> requests, int firstIndex) {
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, requests.size());
+            results.addAll(createChunk(requests.subList(from, to), firstIndex + from));
+        }
+        return results;
+    }
+
+    // One transaction and one JDBC batch per chunk (per shard when sharded); invalid items
+    // never reach the database
+    private List<BatchItemResult> createChunk(List<URLRequest> requests, int firstIndex) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        byte[][] hashes = new byte[requests.size()][];
+        int[] partitions = new int[requests.size()];
+        Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            URLRequest request = requests.get(i);
+            String error = validationError(request);
+            if (error != null) {
+                results[i] = BatchItemResult.builder().index(firstIndex + i).error(error).build();
+                continue;
+            }
+            hashes[i] = urlHashOf(request.getOriginalUrl());
+            partitions[i] = partitionOf(hashes[i]);
+            byShard.computeIfAbsent(shardRouter.shardOfPartition(partitions[i]), shard -> new ArrayList<>()).add(i);
+        }
+
+        int created = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : byShard.entrySet()) {
+            created += shardRouter.onShard(entry.getKey(),
+                    () -> createOnShard(requests, firstIndex, entry.getValue(), hashes, partitions, results));
+        }
+
+        log.info("Bulk chunk processed - firstIndex={}, items={}, created={}",
+                firstIndex, requests.size(), created);
+        return Arrays.asList(results);
+    }
+
+    private int createOnShard(List<URLRequest> requests, int firstIndex, List<Integer> candidates,
+                              byte[][] hashes, int[] partitions, BatchItemResult[] results) {
+        List<Integer> valid = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            URLRequest request = requests.get(i);
+            Optional<URLResponse> existing = urlDeduplicator.findExisting(hashes[i], request.getOriginalUrl(), request.getExpiresAt());
+            if (existing.isPresent()) {
+                results[i] = BatchItemResult.builder().index(firstIndex + i).url(existing.get()).build();
+            } else {
+                valid.add(i);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            long[] ids = idAllocator.nextIds(valid.size());
+            LocalDateTime now = LocalDateTime.now();
+            List<Url> urls = new ArrayList<>(valid.size());
+
+            for (int v = 0; v < valid.size(); v++) {
+                URLRequest request = requests.get(valid.get(v));
+                long id = shardRouter.composeId(ids[v], partitions[valid.get(v)]);
+                String shortCode = shortCodeFormat.generate(id);
+                urls.add(Url.builder()
+                        .id(id)
+                        .originalUrl(request.getOriginalUrl())
+                        .createdAt(now)
+                        .expiresAt(request.getExpiresAt())
+                        .isActive(true)
+                        .shortCode(shortCode)
+                        .shortUrl(domain + shortCode)
+                        .urlHash(storedUrlHash(hashes[valid.get(v)]))
+                        .build());
+            }
+
+            try {
+                writeTransaction().executeWithoutResult(status -> {
+                    urlRepository.saveAll(urls);
+                    urlRepository.flush();
+                    urls.forEach(url -> {
+                        shortCodeFilter.addAfterCommit(url.getShortCode());
+                        cacheInvalidationBus.broadcastAfterCommit(url.getShortCode());
+                        urlDeduplicator.rememberAfterCommit(url);
+                        readYourWrites.recordWrite(url.getShortCode());
+                    });
+                });
+                for (int v = 0; v < valid.size(); v++) {
+                    int i = valid.get(v);
+                    results[i] = BatchItemResult.builder().index(firstIndex + i).url(URLResponse.from(urls.get(v))).build();
+                }
+            } catch (RuntimeException e) {
+                log.error("Bulk chunk failed - firstIndex={}, items={}, error={}",
+                        firstIndex, valid.size(), e.getMessage(), e);
+                for (int i : valid) {
+                    results[i] = BatchItemResult.builder().index(firstIndex + i)
+                            .error("Failed to store URL, retry the item").build();
+                }
+            }
+        }
+        return valid.size();
+    }
+
+    // Same rules as the single-item endpoints: Bean Validation on the DTO, then createUrl's checks
+    private String validationError(URLRequest request) {
+        if (request == null) {
+            return "Item is empty";
+        }
+        Set<ConstraintViolation<URLRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        try {
+            validateOriginalUrl(request);
+            return null;
+        } catch (InvalidUrlException e) {
+            return e.getMessage();
+        }
+    }
+
+    // The fingerprint only serves dedup and shard placement; without either, skip the SHA-256
+    private byte[] urlHashOf(String originalUrl) {
+        return urlDeduplicator.isEnabled() || shardRouter.isEnabled() ? UrlFingerprint.of(originalUrl) : null;
+    }
+
+    private int partitionOf(byte[] urlHash) {
+        return urlHash == null ? 0 : shardRouter.partitionOfUrlHash(urlHash);
+    }
+
+    // Only dedup reads url_hash back; rows created with it off are never dedup targets
+    private byte[] storedUrlHash(byte[] urlHash) {
+        return urlDeduplicator.isEnabled() ? urlHash : null;
+    }
+
+    private TransactionTemplate writeTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
     // -------------------------------------------------------
     // CREATE CUSTOM SHORT URL
     // -------------------------------------------------------
     @Override
-    @Transactional
     public URLResponse createCustomUrl(String customShortCode, URLRequest request) {
-        log.info("Creating custom short URL - customCode={}, urlLength={}",
+        return metrics.time(Operation.CREATE_CUSTOM, () -> createCustom(customShortCode, request));
+    }
+
+    private URLResponse createCustom(String customShortCode, URLRequest request) {
+        log.debug("Creating custom short URL - customCode={}, urlLength={}",
                 customShortCode,
                 request.getOriginalUrl() != null ? request.getOriginalUrl().length() : 0);
 
-        if (urlRepository.existsByShortCode(customShortCode)) {
-            log.warn("Custom URL creation failed - reason=code_exists, customCode={}",
-                    customShortCode);
-            throw new ShortCodeAlreadyExistsException(customShortCode);
-        }
+        shortCodeFormat.validateCustom(customShortCode);
+
+        // The id carries the code's partition too, so by-id operations find the same shard
+        int partition = shardRouter.partitionOfCode(customShortCode);
+        return shardRouter.onShard(shardRouter.shardOfPartition(partition), () -> {
+            long id = shardRouter.composeId(idAllocator.nextId(), partition);
+            return metrics.db(Operation.CREATE_CUSTOM,
+                    () -> writeTransaction().execute(status -> insertCustomUrl(customShortCode, request, id)));
+        });
+    }
 
+    private URLResponse insertCustomUrl(String customShortCode, URLRequest request, long id) {
         try {
             Url url = Url.builder()
+                    .id(id)
                     .originalUrl(request.getOriginalUrl())
                     .createdAt(LocalDateTime.now())
                     .expiresAt(request.getExpiresAt())
@@ -107,13 +312,21 @@ public class URLService implements UrlService {
                     .shortUrl(domain + customShortCode)
                     .build();
 
-            url = urlRepository.save(url);
+            // uk_urls_short_code decides who gets the code; flush so a clash surfaces here
+            url = urlRepository.saveAndFlush(url);
+            shortCodeFilter.addAfterCommit(customShortCode);
+            cacheInvalidationBus.broadcastAfterCommit(customShortCode);
+            readYourWrites.recordWrite(customShortCode);
 
             log.info("Custom short URL created successfully - shortCode={}, id={}",
                     customShortCode, url.getId());
 
-            return mapToResponse(url);
+            return URLResponse.from(url);
 
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Custom URL creation failed - reason=code_exists, customCode={}",
+                    customShortCode);
+            throw new ShortCodeAlreadyExistsException(customShortCode);
         } catch (Exception e) {
             log.error("Failed to create custom short URL - customCode={}, error={}",
                     customShortCode, e.getMessage(), e);
@@ -126,73 +339,140 @@ public class URLService implements UrlService {
     // -------------------------------------------------------
     @Override
     public URLResponse getUrlInfo(String shortCode) {
-        log.info("Retrieving URL info - shortCode={}", shortCode);
+        return metrics.time(Operation.INFO, () -> info(shortCode));
+    }
+
+    private URLResponse info(String shortCode) {
+        log.debug("Retrieving URL info - shortCode={}", shortCode);
 
-        Url url = urlRepository.findByShortCode(shortCode)
+        if (!shortCodeFormat.isWellFormed(shortCode) || !shortCodeFilter.mightContain(shortCode)) {
+            log.debug("URL not found (bloom filter) - shortCode={}", shortCode);
+            throw new ShortCodeNotFoundException(shortCode);
+        }
+
+        URLResponse response = metrics.db(Operation.INFO, () -> shardRouter.onShard(shardRouter.shardOfCode(shortCode),
+                        () -> readYourWrites.find(shortCode, () -> urlRepository.findUrlInfo(shortCode))))
                 .orElseThrow(() -> {
                     log.warn("URL not found - shortCode={}", shortCode);
-                    return new RuntimeException("Short code not found.");
+                    return new ShortCodeNotFoundException(shortCode);
                 });
 
-        // Check if expired
-        if (url.getExpiresAt() != null && url.getExpiresAt().isBefore(LocalDateTime.now())) {
-            log.info("Expired URL accessed - shortCode={}, expiredAt={}",
-                    shortCode, url.getExpiresAt());
-        }
+        log.info("URL info retrieved - shortCode={}, isActive={}, hasExpiry={}",
+                shortCode, response.getIsActive(), response.getExpiresAt() != null);
+
+        return response;
+    }
 
-        // Check if inactive
-        if (!url.getIsActive()) {
-            log.info("Inactive URL accessed - shortCode={}", shortCode);
+    // -------------------------------------------------------
+    // RESOLVE REDIRECT (hot path, read-through cache)
+    // -------------------------------------------------------
+    @Override
+    public String resolveRedirect(String shortCode) {
+        return metrics.time(Operation.REDIRECT, () -> redirect(shortCode));
+    }
+
+    private String redirect(String shortCode) {
+        if (!shortCodeFormat.isWellFormed(shortCode)) {
+            throw new ShortCodeNotFoundException(shortCode);
+        }
+        hotKeyDetector.record(shortCode);
+
+        RedirectTarget target = urlCache.get(shortCode);
+
+        if (target == null) {
+            if (!shortCodeFilter.mightContain(shortCode)) {
+                throw new ShortCodeNotFoundException(shortCode);
+            }
+            // Concurrent misses on the same code share one query and its outcome
+            target = urlCache.getOrLoad(shortCode, () -> {
+                log.debug("Redirect cache miss - shortCode={}", shortCode);
+                return metrics.db(Operation.REDIRECT, () -> shardRouter.onShard(shardRouter.shardOfCode(shortCode),
+                                () -> readYourWrites.find(shortCode, () -> urlRepository.findRedirectTarget(shortCode))))
+                        .orElseThrow(() -> new ShortCodeNotFoundException(shortCode));
+            });
         }
 
-        log.info("URL info retrieved - shortCode={}, isActive={}, hasExpiry={}",
-                shortCode, url.getIsActive(), url.getExpiresAt() != null);
+        if (!target.isServable(LocalDateTime.now())) {
+            metrics.gone(target.active());
+            log.debug("Redirect refused - shortCode={}, isActive={}, expiresAt={}",
+                    shortCode, target.active(), target.expiresAt());
+            throw new UrlGoneException(shortCode);
+        }
 
-        return mapToResponse(url);
+        return target.originalUrl();
     }
 
     // -------------------------------------------------------
     // DEACTIVATE URL
     // -------------------------------------------------------
     @Override
-    @Transactional
     public void deactivateUrl(Long id) {
+        metrics.time(Operation.DEACTIVATE, () -> {
+            deactivate(id);
+            return null;
+        });
+    }
+
+    private void deactivate(Long id) {
         log.info("Deactivating URL - id={}", id);
 
-        Url url = urlRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Cannot deactivate - URL not found, id={}", id);
-                    return new RuntimeException("URL not found.");
-                });
+        // Ids issued before sharding was enabled don't carry their partition: try the others too
+        Url url = null;
+        int expected = shardRouter.shardOfId(id);
+        for (int i = 0; i < shardRouter.shardCount() && url == null; i++) {
+            int shard = (expected + i) % shardRouter.shardCount();
+            url = shardRouter.onShard(shard,
+                    () -> metrics.db(Operation.DEACTIVATE, () -> writeTransaction().execute(status -> deactivateOnShard(id))));
+        }
+        if (url == null) {
+            log.warn("Cannot deactivate - URL not found, id={}", id);
+            throw new RuntimeException("URL not found.");
+        }
+
+        log.info("URL deactivated successfully - id={}, shortCode={}", id, url.getShortCode());
+    }
 
+    private Url deactivateOnShard(Long id) {
+        Url url = urlRepository.findById(id).orElse(null);
+        if (url == null) {
+            return null;
+        }
         url.setIsActive(false);
+        url.setDeactivatedAt(LocalDateTime.now());
         urlRepository.save(url);
-
-        log.info("URL deactivated successfully - id={}, shortCode={}", id, url.getShortCode());
+        urlCache.invalidateAfterCommit(url.getShortCode());
+        cacheInvalidationBus.broadcastAfterCommit(url.getShortCode());
+        urlDeduplicator.forget(url);
+        readYourWrites.recordWrite(url.getShortCode());
+        return url;
     }
 
     // -------------------------------------------------------
-    // HELPER: Sanitize URL for logging (remove sensitive params)
+    // HELPER: Validate original URL
     // -------------------------------------------------------
-    private String sanitizeUrl(String url) {
-        if (url == null) return "null";
+    private void validateOriginalUrl(URLRequest request) {
+        if (request.getOriginalUrl() == null || request.getOriginalUrl().isBlank()) {
+            log.warn("URL creation failed - reason=empty_url");
+            throw new InvalidUrlException("Original URL cannot be empty");
+        }
 
-        // Remove sensitive query parameters
-        return url.replaceAll("([?&])(token|key|secret|password|auth)=[^&]*", "$1$2=***");
+        if (!HTTP_URL.matcher(request.getOriginalUrl()).matches()) {
+            log.warn("URL creation failed - reason=invalid_format, url={}",
+                    sanitizeUrl(request.getOriginalUrl()));
+            throw new InvalidUrlException(request.getOriginalUrl());
+        }
     }
 
     // -------------------------------------------------------
-    // MAPPER
+    // HELPER: Sanitize URL for logging (remove sensitive params)
     // -------------------------------------------------------
-    private URLResponse mapToResponse(Url url) {
-        return URLResponse.builder()
-                .id(url.getId())
-                .shortCode(url.getShortCode())
-                .originalUrl(url.getOriginalUrl())
-                .createdAt(url.getCreatedAt())
-                .expiresAt(url.getExpiresAt())
-                .isActive(url.getIsActive())
-                .shortUrl(url.getShortUrl())
-                .build();
+    private String sanitizeUrl(String url) {
+        if (url == null) return "null";
+
+        // Remove sensitive query parameters (no parameters, nothing to do)
+        if (url.indexOf('?') < 0 && url.indexOf('&') < 0) {
+            return url;
+        }
+        return SENSITIVE_PARAM.matcher(url).replaceAll("$1$2=***");
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.domain.entity.Url;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.util.UrlFingerprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Optional dedup mode ({@code app.dedup.enabled}): shortening a URL that already has an active
+ * generated link with the same expiry returns that link instead of inserting a new row.
+ * <p>
+ * Lookups go through a small recent-hash cache first, then {@code idx_urls_url_hash}; candidates
+ * are confirmed by comparing the normalized URLs, so a hash collision can never merge two links.
+ * A cached answer is only trusted while no other instance has announced a change to its code
+ * (see {@link #forget(String)}); otherwise the index is asked again, so a link deactivated
+ * elsewhere is never handed out. Dedup is best effort: two concurrent first requests for the
+ * same URL may still both insert.
+ * Custom codes are never handed out here (their rows carry no hash).
+ */
+@Component
+public class UrlDeduplicator {
+
+    private static final int MAX_CANDIDATES = 16;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final UrlRepository urlRepository;
+    private final boolean enabled;
+    private final Cache<DedupKey, URLResponse> recent;
+    private final Cache<String, Boolean> changedElsewhere;
+    private final Counter cacheHits;
+    private final Counter indexHits;
+
+    public UrlDeduplicator(UrlRepository urlRepository,
+                           @Value("${app.dedup.enabled:false}") boolean enabled,
+                           @Value("${app.dedup.cache.max-size:100000}") long maxSize,
+                           @Value("${app.dedup.cache.ttl:PT1M}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.urlRepository = urlRepository;
+        this.enabled = enabled;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // An entry changed elsewhere can only be cached for one more ttl, so that's all we remember
+        this.changedElsewhere = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "urlDedupCache");
+        this.cacheHits = Counter.builder("bigshort.dedup.hits").tag("source", "cache")
+                .description("Shorten requests answered with an existing link")
+                .register(meterRegistry);
+        this.indexHits = Counter.builder("bigshort.dedup.hits").tag("source", "index")
+                .description("Shorten requests answered with an existing link")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the existing active link for this URL and expiry, empty when dedup is off or there is none
+     */
+    public Optional<URLResponse> findExisting(byte[] urlHash, String originalUrl, LocalDateTime expiresAt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        DedupKey key = new DedupKey(HEX.formatHex(urlHash), expiresAt);
+
+        URLResponse cached = recent.getIfPresent(key);
+        if (cached != null && isLive(cached.getExpiresAt(), now)
+                && changedElsewhere.getIfPresent(cached.getShortCode()) == null) {
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+
+        String normalized = UrlFingerprint.normalize(originalUrl);
+        for (Url candidate : urlRepository.findActiveByUrlHash(urlHash, PageRequest.ofSize(MAX_CANDIDATES))) {
+            if (Objects.equals(candidate.getExpiresAt(), expiresAt)
+                    && isLive(candidate.getExpiresAt(), now)
+                    && UrlFingerprint.normalize(candidate.getOriginalUrl()).equals(normalized)) {
+                URLResponse existing = URLResponse.from(candidate);
+                recent.put(key, existing);
+                indexHits.increment();
+                return Optional.of(existing);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Makes a newly created link a dedup target for later requests once its transaction commits.
+     */
+    public void rememberAfterCommit(Url url) {
+        if (!enabled || url.getUrlHash() == null) {
+            return;
+        }
+        DedupKey key = new DedupKey(HEX.formatHex(url.getUrlHash()), url.getExpiresAt());
+        URLResponse response = URLResponse.from(url);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recent.put(key, response);
+                }
+            });
+        } else {
+            recent.put(key, response);
+        }
+    }
+
+    // Deactivated on this node
+    public void forget(Url url) {
+        if (enabled && url.getUrlHash() != null) {
+            recent.invalidate(new DedupKey(HEX.formatHex(url.getUrlHash()), url.getExpiresAt()));
+        }
+    }
+
+    /**
+     * Another instance changed (possibly deactivated) {@code shortCode}: a cached answer naming
+     * it is re-checked against the index from now on. Only the code is known here, not its hash.
+     */
+    public void forget(String shortCode) {
+        if (enabled) {
+            changedElsewhere.put(shortCode, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isLive(LocalDateTime expiresAt, LocalDateTime now) {
+        return expiresAt == null || expiresAt.isAfter(now);
+    }
+
+    private record DedupKey(String urlHash, LocalDateTime expiresAt) {
+    }
+}
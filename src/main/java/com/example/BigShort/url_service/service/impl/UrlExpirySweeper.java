@@ -0,0 +1,133 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.ShortCodeRef;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deactivates expired links in bulk so expiry costs nothing per request.
+ * <p>
+ * Every {@code app.expiry.sweep-interval} the active rows past {@code expires_at} are read
+ * through {@code idx_urls_active_expires_at} in pages of {@code app.expiry.batch-size}, each page
+ * flipped inactive with one UPDATE and evicted from the lookup cache after commit. Until the
+ * sweep reaches a link, redirects still refuse it because the cached target carries its expiry.
+ * With {@code app.expiry.purge-after} set, deactivated rows that expired longer ago than that are
+ * deleted in the same batches. Sweeps on several instances are safe: the UPDATE skips rows that
+ * are already inactive. Shards are swept in parallel, each on its own.
+ */
+@Component
+public class UrlExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlExpirySweeper.class);
+
+    private final UrlRepository urlRepository;
+    private final UrlCache urlCache;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration purgeAfter;
+    private final Counter deactivated;
+    private final Counter purged;
+
+    public UrlExpirySweeper(UrlRepository urlRepository,
+                            UrlCache urlCache,
+                            ShardRouter shardRouter,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.expiry.enabled:true}") boolean enabled,
+                            @Value("${app.expiry.batch-size:1000}") int batchSize,
+                            @Value("${app.expiry.purge-after:PT0S}") Duration purgeAfter,
+                            MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.expiry.batch-size must be positive");
+        }
+        this.urlRepository = urlRepository;
+        this.urlCache = urlCache;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.purgeAfter = purgeAfter;
+        this.deactivated = Counter.builder("bigshort.expiry.deactivated")
+                .description("Expired links deactivated by the sweeper")
+                .register(meterRegistry);
+        this.purged = Counter.builder("bigshort.expiry.purged")
+                .description("Expired links deleted after app.expiry.purge-after")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.expiry.sweep-interval:PT30S}",
+            fixedDelayString = "${app.expiry.sweep-interval:PT30S}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        shardRouter.onAllShards(shard -> {
+            sweepShard(shard, now);
+            return null;
+        });
+    }
+
+    private void sweepShard(int shard, LocalDateTime now) {
+        try {
+            int total = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> deactivateBatch(now));
+                total += batch;
+            } while (batch == batchSize);
+
+            int removed = purgeAfter.isZero() || purgeAfter.isNegative() ? 0 : purge(now.minus(purgeAfter));
+            if (total > 0 || removed > 0) {
+                log.info("Expiry sweep finished - shard={}, deactivated={}, purged={}", shard, total, removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Expiry sweep failed, will retry - shard={}, error={}", shard, e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------
+    // One page: bulk UPDATE, then evict after commit
+    // -------------------------------------------------------
+    private int deactivateBatch(LocalDateTime now) {
+        List<ShortCodeRef> expired = urlRepository.findExpiredActive(now, PageRequest.ofSize(batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int updated = urlRepository.deactivateAll(expired.stream().map(ShortCodeRef::id).toList(), now);
+        expired.forEach(ref -> urlCache.invalidateAfterCommit(ref.shortCode()));
+        deactivated.increment(updated);
+        return expired.size();
+    }
+
+    private int purge(LocalDateTime cutoff) {
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = urlRepository.findExpiredInactiveIds(cutoff, PageRequest.ofSize(batchSize));
+            if (!ids.isEmpty()) {
+                List<Long> page = ids;
+                transactionTemplate.executeWithoutResult(status -> urlRepository.deleteAllByIdInBatch(page));
+                total += ids.size();
+            }
+        } while (ids.size() == batchSize);
+        purged.increment(total);
+        return total;
+    }
+}
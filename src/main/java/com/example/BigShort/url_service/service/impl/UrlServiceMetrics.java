@@ -0,0 +1,136 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.exception.InvalidShortCodeException;
+import com.example.BigShort.url_service.exception.InvalidUrlException;
+import com.example.BigShort.url_service.exception.ShortCodeAlreadyExistsException;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.exception.ShortCodeTooLongException;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for {@link URLService} and {@link ReactiveURLService}.
+ * <ul>
+ *   <li>{@code bigshort.url.operations} (operation, outcome): end-to-end service time. Its counts
+ *   by outcome are the conflict ({@code create_custom/conflict}), not-found and gone rates.</li>
+ *   <li>{@code bigshort.url.db} (operation): the part of it spent in database work - the write
+ *   transaction, or the query behind a cache miss.</li>
+ *   <li>{@code bigshort.url.gone} (reason = expired | inactive): lookups refused with 410.</li>
+ * </ul>
+ * Every tag combination is registered up front (so alerts see zeros rather than missing series)
+ * and held in arrays: recording is two {@code nanoTime} calls and an array read. Percentile
+ * histograms are switched on per meter prefix with {@code management.metrics.distribution.*}.
+ */
+@Component
+public class UrlServiceMetrics {
+
+    public enum Operation {
+        CREATE, CREATE_CUSTOM, REDIRECT, INFO, DEACTIVATE
+    }
+
+    enum Outcome {
+        SUCCESS, INVALID, NOT_FOUND, GONE, CONFLICT, ERROR
+    }
+
+    private final Timer[][] operations = new Timer[Operation.values().length][Outcome.values().length];
+    private final Timer[] db = new Timer[Operation.values().length];
+    private final Counter goneExpired;
+    private final Counter goneInactive;
+
+    public UrlServiceMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                operations[operation.ordinal()][outcome.ordinal()] = Timer.builder("bigshort.url.operations")
+                        .description("URL service operations, end to end")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry);
+            }
+            db[operation.ordinal()] = Timer.builder("bigshort.url.db")
+                    .description("Database time within URL service operations")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry);
+        }
+        this.goneExpired = goneCounter(meterRegistry, "expired");
+        this.goneInactive = goneCounter(meterRegistry, "inactive");
+    }
+
+    /**
+     * Runs {@code work} and records its duration under {@code operation} and the outcome its
+     * exception (if any) maps to.
+     */
+    public <T> T time(Operation operation, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            T result = work.get();
+            record(operation, Outcome.SUCCESS, start);
+            return result;
+        } catch (RuntimeException e) {
+            record(operation, outcomeOf(e), start);
+            throw e;
+        }
+    }
+
+    public <T> T db(Operation operation, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recordDb(operation, start);
+        }
+    }
+
+    /**
+     * For work that completes on another thread (reactive mode): {@code start} is the
+     * {@code System.nanoTime()} it began at, {@code failure} null on success.
+     */
+    public void record(Operation operation, Throwable failure, long start) {
+        record(operation, failure == null ? Outcome.SUCCESS : outcomeOf(failure), start);
+    }
+
+    public void recordDb(Operation operation, long start) {
+        db[operation.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void gone(boolean active) {
+        (active ? goneExpired : goneInactive).increment();
+    }
+
+    private void record(Operation operation, Outcome outcome, long start) {
+        operations[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    static Outcome outcomeOf(Throwable e) {
+        if (e instanceof ShortCodeNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (e instanceof UrlGoneException) {
+            return Outcome.GONE;
+        }
+        if (e instanceof ShortCodeAlreadyExistsException) {
+            return Outcome.CONFLICT;
+        }
+        if (e instanceof InvalidUrlException || e instanceof InvalidShortCodeException || e instanceof ShortCodeTooLongException) {
+            return Outcome.INVALID;
+        }
+        return Outcome.ERROR;
+    }
+
+    private static Counter goneCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("bigshort.url.gone")
+                .description("Lookups refused because the link expired or was deactivated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.BigShort.url_service.service.interfaces;
+
+public interface IdAllocator {
+
+    // Next unique id, safe across threads and application instances
+    long nextId();
+
+    // Reserve several ids at once (bulk inserts)
+    long[] nextIds(int count);
+}
@@ -0,0 +1,21 @@
+package com.example.BigShort.url_service.service.interfaces;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UrlService} for the reactive deployment mode: same operations, same exceptions, but
+ * signalled through the returned {@link Mono} instead of thrown.
+ */
+public interface ReactiveUrlService {
+
+    Mono<URLResponse> createUrl(URLRequest request);
+
+    Mono<URLResponse> createCustomUrl(String customShortCode, URLRequest request);
+
+    Mono<URLResponse> getUrlInfo(String shortCode);
+
+    // Original URL to redirect to; errors with ShortCodeNotFoundException or UrlGoneException
+    Mono<String> resolveRedirect(String shortCode);
+}
@@ -0,0 +1,12 @@
+package com.example.BigShort.url_service.service.interfaces;
+
+import com.example.BigShort.url_service.domain.dto.UrlStatsResponse;
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+public interface StatsService {
+
+    // Total clicks plus a zero-filled series for [from, to] at the given granularity
+    UrlStatsResponse getStats(String shortCode, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -1,5 +1,6 @@
 package com.example.BigShort.url_service.service.interfaces;
 
+import com.example.BigShort.url_service.domain.dto.BatchItemResult;
 import com.example.BigShort.url_service.domain.dto.URLRequest;
 import com.example.BigShort.url_service.domain.dto.URLResponse;
 
@@ -10,10 +11,16 @@ public interface UrlService {
     // Create a new shortened URL (generate shortCode + shortUrl using Base62)
     URLResponse createUrl(URLRequest request);
 
+    // Create many shortened URLs in JDBC batches; results keep request order, errors are per item
+    List<BatchItemResult> createUrls(List<URLRequest> requests, int firstIndex);
+
     // Fetch metadata/info about a URL by its short code
     URLResponse getUrlInfo(String shortCode);
 
 
+    // Resolve a short code to the original URL for a redirect (cached, rejects dead links)
+    String resolveRedirect(String shortCode);
+
     // Soft delete (set isActive = false)
     void deactivateUrl(Long id);
 
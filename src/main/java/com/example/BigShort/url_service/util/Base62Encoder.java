@@ -1,28 +1,153 @@
 package com.example.BigShort.url_service.util;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Base62 codec for short codes, built on lookup tables.
+ * <p>
+ * Encoding writes digits straight into a char[] (the caller's, or one that becomes the String);
+ * decoding is a table lookup per character and rejects anything outside the alphabet instead of
+ * silently mapping it to -1. An optional Luhn mod 62 check character lets malformed codes be
+ * rejected before any cache or database lookup.
+ */
 public class Base62Encoder {
 
-    private static final String BASE62 = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    // Convert a decimal number to Base62
-    public static String encode(long number) {
-        if (number == 0) return "0";
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final int BASE = 62;
+    private static final byte[] INDEX = new byte[128];
 
-        StringBuilder result = new StringBuilder();
+    // Long.MAX_VALUE is 11 digits in base 62
+    public static final int MAX_LENGTH = 11;
+
+    static {
+        Arrays.fill(INDEX, (byte) -1);
+        for (int i = 0; i < BASE; i++) {
+            INDEX[ALPHABET[i]] = (byte) i;
+        }
+    }
 
-        while (number > 0) {
-            int remainder = (int) (number % 62);
-            result.append(BASE62.charAt(remainder)); // get the corresponding Base62 character
-            number = number / 62;
+    // Convert a non-negative number to Base62
+    public static String encode(long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Cannot encode negative number " + number);
         }
+        // Exact-size Latin-1 bytes: the String copies them once, nothing else is allocated
+        byte[] digits = new byte[length(number)];
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ALPHABET[(int) (number % BASE)];
+            number /= BASE;
+        } while (number > 0);
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
 
-        return result.reverse().toString(); // reverse because we build it backwards
+    /**
+     * Writes the Base62 digits of {@code number} into {@code buffer} starting at {@code offset}.
+     *
+     * @return number of chars written (at most {@link #MAX_LENGTH})
+     */
+    public static int encode(long number, char[] buffer, int offset) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Cannot encode negative number " + number);
+        }
+        int length = length(number);
+        int position = offset + length;
+        do {
+            buffer[--position] = ALPHABET[(int) (number % BASE)];
+            number /= BASE;
+        } while (number > 0);
+        return length;
     }
-    public static long decode(String base62) {
+
+    // Left-pads with '0' to at least {@code width} chars; wider numbers are not truncated
+    public static String encodePadded(long number, int width) {
+        int digits = length(number);
+        char[] buffer = new char[Math.max(width, digits)];
+        int padding = buffer.length - digits;
+        Arrays.fill(buffer, 0, padding, ALPHABET[0]);
+        encode(number, buffer, padding);
+        return new String(buffer);
+    }
+
+    public static long decode(CharSequence base62) {
+        return decode(base62, 0, base62.length());
+    }
+
+    /**
+     * Decodes {@code base62[from, to)}.
+     *
+     * @throws IllegalArgumentException if the range is empty, contains a non-Base62 char or overflows a long
+     */
+    public static long decode(CharSequence base62, int from, int to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Cannot decode an empty Base62 string");
+        }
         long number = 0;
-        for (char c : base62.toCharArray()) {
-            number = number * 62 + BASE62.indexOf(c);
+        for (int i = from; i < to; i++) {
+            int digit = digit(base62.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid Base62 character '" + base62.charAt(i) + "' at " + i);
+            }
+            if (number > (Long.MAX_VALUE - digit) / BASE) {
+                throw new IllegalArgumentException("Base62 value overflows a long: " + base62.subSequence(from, to));
+            }
+            number = number * BASE + digit;
         }
         return number;
     }
 
+    // True if every char is in the alphabet (no length or overflow check)
+    public static boolean isValid(CharSequence code) {
+        if (code == null || code.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (digit(code.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // -------------------------------------------------------
+    // Check character (Luhn mod 62): catches every single-char typo and most swaps
+    // -------------------------------------------------------
+    public static char checkChar(CharSequence code, int from, int to) {
+        int sum = 0;
+        int factor = 2;
+        for (int i = to - 1; i >= from; i--) {
+            int digit = digit(code.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid Base62 character '" + code.charAt(i) + "' at " + i);
+            }
+            int addend = factor * digit;
+            sum += addend / BASE + addend % BASE;
+            factor = 3 - factor;
+        }
+        return ALPHABET[(BASE - sum % BASE) % BASE];
+    }
+
+    public static String appendCheckChar(String code) {
+        return code + checkChar(code, 0, code.length());
+    }
+
+    // True if the last char is the check character of the rest
+    public static boolean hasValidCheckChar(CharSequence code) {
+        int length = code.length();
+        return length >= 2 && isValid(code) && checkChar(code, 0, length - 1) == code.charAt(length - 1);
+    }
+
+    private static int digit(char c) {
+        return c < 128 ? INDEX[c] : -1;
+    }
+
+    private static int length(long number) {
+        int length = 1;
+        while (number >= BASE) {
+            number /= BASE;
+            length++;
+        }
+        return length;
+    }
 }
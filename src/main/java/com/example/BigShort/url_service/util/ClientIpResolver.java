@@ -0,0 +1,27 @@
+package com.example.BigShort.url_service.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The client address of a request: the socket peer, never a header the client can set itself.
+ * Behind a load balancer the container rewrites it from {@code X-Forwarded-For}
+ * ({@code server.forward-headers-strategy}), taking the rightmost hop that is not one of the
+ * trusted proxies in {@code server.tomcat.remoteip.internal-proxies}.
+ */
+public class ClientIpResolver {
+
+    public static String resolve(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    public static String resolve(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.BigShort.url_service.util;
+
+/**
+ * Non-cryptographic hash helpers shared by shard routing and hot-key counting.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Murmur3 fmix32 finalizer: spreads every input bit over the whole word. Pure integer
+     * arithmetic, so the result is the same on every JVM.
+     */
+    public static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
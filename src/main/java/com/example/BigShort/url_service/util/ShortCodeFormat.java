@@ -0,0 +1,131 @@
+package com.example.BigShort.url_service.util;
+
+import com.example.BigShort.url_service.exception.InvalidShortCodeException;
+import com.example.BigShort.url_service.exception.ShortCodeTooLongException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shape of the short codes this instance issues and accepts.
+ * <p>
+ * Generated codes are {@link Base62Encoder} ids, optionally left-padded to
+ * {@code app.shortener.code-width} and followed by a check character
+ * ({@code app.shortener.check-char}). With the check character on, every code of the generated
+ * length must carry a valid one, so a typo in a generated code is rejected before the cache or
+ * database is consulted, and any code at least that long which carries one is reserved for
+ * generated links: custom codes can then never collide with a generated code, and
+ * {@link #isGenerated} tells the two apart.
+ * <p>
+ * Custom codes may also use {@code -} and {@code _}, and links created before codes were checked
+ * may hold anything: the strict Base62 and check-character rules only apply to codes with the
+ * generated shape, everything else is left to the bloom filter and the database.
+ */
+@Component
+public class ShortCodeFormat {
+
+    public static final int MAX_LENGTH = 32;  // urls.short_code column
+
+    private final int width;
+    private final boolean checkChar;
+
+    public ShortCodeFormat(@Value("${app.shortener.code-width:0}") int width,
+                           @Value("${app.shortener.check-char:false}") boolean checkChar) {
+        if (checkChar && width < 1) {
+            throw new IllegalArgumentException("app.shortener.check-char requires app.shortener.code-width > 0");
+        }
+        if (width >= MAX_LENGTH) {
+            throw new IllegalArgumentException("app.shortener.code-width must be below " + MAX_LENGTH);
+        }
+        this.width = width;
+        this.checkChar = checkChar;
+    }
+
+    public String generate(long id) {
+        String code = width > 0 ? Base62Encoder.encodePadded(id, width) : Base62Encoder.encode(id);
+        return checkChar ? Base62Encoder.appendCheckChar(code) : code;
+    }
+
+    /**
+     * Cheap pre-lookup check: false means the code cannot exist, whoever issued it.
+     */
+    public boolean isWellFormed(String code) {
+        if (code == null || code.isEmpty() || code.length() > MAX_LENGTH) {
+            return false;
+        }
+        return !checkChar || code.length() != width + 1 || !Base62Encoder.isValid(code)
+                || Base62Encoder.hasValidCheckChar(code);
+    }
+
+    public void validateCustom(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new InvalidShortCodeException(String.valueOf(code), "it is empty");
+        }
+        if (code.length() > MAX_LENGTH) {
+            throw new ShortCodeTooLongException(code, MAX_LENGTH);
+        }
+        if (!isCustomCharset(code)) {
+            throw new InvalidShortCodeException(code, "only letters, digits, '-' and '_' are allowed");
+        }
+        if (!isWellFormed(code)) {
+            throw new InvalidShortCodeException(code, (width + 1) + "-character codes are reserved for generated links");
+        }
+        if (isGenerated(code)) {
+            throw new InvalidShortCodeException(code, "codes ending in a valid check character are reserved for generated links");
+        }
+    }
+
+    private static boolean isCustomCharset(String code) {
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True if the code has the shape of a generated one (check-char mode only).
+     */
+    public boolean isGenerated(String code) {
+        return checkChar
+                && code.length() >= width + 1
+                && code.length() <= Base62Encoder.MAX_LENGTH + 1
+                && Base62Encoder.hasValidCheckChar(code);
+    }
+
+    /**
+     * Id behind a code for which {@link #isGenerated} is true.
+     *
+     * @throws IllegalArgumentException if the digits overflow a long
+     */
+    public long idOf(String code) {
+        return Base62Encoder.decode(code, 0, code.length() - 1);
+    }
+
+    /**
+     * The id {@code code} was generated from, if {@link #generate} returns exactly {@code code}
+     * for it; -1 otherwise. Unlike {@link #idOf} this works in every mode and never maps two
+     * codes to one id (no extra or missing padding, no invalid check character), so callers can
+     * key on the id in place of the code.
+     */
+    public long canonicalId(String code) {
+        int digits = checkChar ? code.length() - 1 : code.length();
+        if (digits < Math.max(width, 1) || digits > Base62Encoder.MAX_LENGTH
+                || (digits > width && digits > 1 && code.charAt(0) == '0')
+                || !Base62Encoder.isValid(code)
+                || (checkChar && !Base62Encoder.hasValidCheckChar(code))) {
+            return -1;
+        }
+        try {
+            return Base62Encoder.decode(code, 0, digits);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // Codes issued by generate() carry a check character
+    public boolean hasCheckChar() {
+        return checkChar;
+    }
+}
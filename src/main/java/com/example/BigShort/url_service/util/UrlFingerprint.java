@@ -0,0 +1,68 @@
+package com.example.BigShort.url_service.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Fixed-width (SHA-256, 32 bytes) fingerprint of a normalized original URL, stored in
+ * {@code urls.url_hash} so identical links can be found through an index instead of
+ * comparing TEXT columns.
+ * <p>
+ * Normalization only folds spellings that are guaranteed to mean the same resource:
+ * surrounding whitespace, scheme and host case, a default port and an empty path.
+ * Path, query and fragment are kept byte for byte.
+ */
+public final class UrlFingerprint {
+
+    public static final int LENGTH = 32;
+
+    private UrlFingerprint() {
+    }
+
+    public static byte[] of(String originalUrl) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(normalize(originalUrl).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String normalize(String originalUrl) {
+        String url = originalUrl.strip();
+        try {
+            URI uri = new URI(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || (port == 80 && scheme.equals("http"))
+                    || (port == 443 && scheme.equals("https"));
+
+            StringBuilder normalized = new StringBuilder(url.length()).append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalized.append(uri.getRawUserInfo()).append('@');
+            }
+            normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                normalized.append('#').append(uri.getRawFragment());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Schema added by the id allocator, dedup and click rollups while the app still ran with
+-- ddl-auto=update. Runs on fresh and baselined databases alike.
+
+CREATE INDEX idx_urls_created_at ON urls (created_at);
+CREATE INDEX idx_urls_active_expires_at ON urls (is_active, expires_at);
+
+-- SHA-256 of the normalized original URL (UrlFingerprint); NULL for custom codes and older rows
+ALTER TABLE urls ADD COLUMN url_hash VARBINARY(32) NULL;
+CREATE INDEX idx_urls_url_hash ON urls (url_hash);
+
+-- Block id leases; the urls row is created on first lease, starting above MAX(urls.id)
+CREATE TABLE id_sequence (
+    name     VARCHAR(64) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE url_click_rollups (
+    short_code   VARCHAR(32) NOT NULL,
+    granularity  VARCHAR(8)  NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    clicks       BIGINT      NOT NULL,
+    PRIMARY KEY (short_code, granularity, bucket_start)
+);
@@ -0,0 +1,15 @@
+-- The urls table exactly as Hibernate generated it (ddl-auto=update) before the schema moved to
+-- Flyway. Databases created that way are baselined at version 1 (spring.flyway.baseline-on-migrate)
+-- and skip this script, so everything added since belongs in a later migration that both kinds of
+-- database run. The id column keeps AUTO_INCREMENT; ids are now assigned by the application.
+
+CREATE TABLE urls (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at   DATETIME(6)  NOT NULL,
+    expires_at   DATETIME(6),
+    is_active    BIT          NOT NULL,
+    original_url TEXT         NOT NULL,
+    short_code   VARCHAR(32),
+    short_url    VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
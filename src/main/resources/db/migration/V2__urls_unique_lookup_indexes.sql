@@ -0,0 +1,9 @@
+-- Lookups by short code / short URL were full scans, and uniqueness was check-then-insert.
+-- Fails on a database that already holds duplicates: resolve those before deploying.
+--
+-- uk_urls_short_code serves the redirect and info lookups as one unique index dive plus the
+-- primary-key read; original_url is TEXT and cannot be part of a covering index. The sweeps
+-- use idx_urls_active_expires_at from V1 (active rows past expiry, deactivated rows to purge).
+
+CREATE UNIQUE INDEX uk_urls_short_code ON urls (short_code);
+CREATE UNIQUE INDEX uk_urls_short_url ON urls (short_url);
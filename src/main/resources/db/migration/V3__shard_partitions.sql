@@ -0,0 +1,8 @@
+-- Logical partition -> physical shard map for app.sharding. Created on every shard by the
+-- same migrations, but only shard 0's copy is read; ShardRouter seeds it on first start.
+
+CREATE TABLE shard_partitions (
+    partition_no INT NOT NULL,
+    shard        INT NOT NULL,
+    PRIMARY KEY (partition_no)
+);
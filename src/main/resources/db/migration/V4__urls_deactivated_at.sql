@@ -0,0 +1,6 @@
+-- When a link was deactivated (by deactivateUrl or the expiry sweeper). Cache reconciliation
+-- reads the recent ones through idx_urls_deactivated_at to catch invalidation messages that
+-- never arrived. Rows deactivated before this migration stay NULL.
+
+ALTER TABLE urls ADD COLUMN deactivated_at DATETIME(6) NULL;
+CREATE INDEX idx_urls_deactivated_at ON urls (deactivated_at);
@@ -0,0 +1,103 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.url_service.util.Base62Encoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table-driven {@link Base62Encoder} against the previous StringBuilder/indexOf implementation.
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main Base62EncoderBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Base62EncoderBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final long[] ids = new long[SAMPLES];
+    private final String[] codes = new String[SAMPLES];
+    private final char[] buffer = new char[Base62Encoder.MAX_LENGTH];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SAMPLES; i++) {
+            // Realistic id range: a few hundred million rows
+            ids[i] = ThreadLocalRandom.current().nextLong(1, 500_000_000L);
+            codes[i] = Base62Encoder.encode(ids[i]);
+        }
+    }
+
+    private int nextIndex() {
+        return next = (next + 1) & (SAMPLES - 1);
+    }
+
+    @Benchmark
+    public String encodeLegacy() {
+        return LegacyBase62Encoder.encode(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Base62Encoder.encode(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public void encodeIntoBuffer(Blackhole blackhole) {
+        blackhole.consume(Base62Encoder.encode(ids[nextIndex()], buffer, 0));
+        blackhole.consume(buffer);
+    }
+
+    @Benchmark
+    public long decodeLegacy() {
+        return LegacyBase62Encoder.decode(codes[nextIndex()]);
+    }
+
+    @Benchmark
+    public long decode() {
+        return Base62Encoder.decode(codes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean validateCheckChar() {
+        return Base62Encoder.hasValidCheckChar(codes[nextIndex()]);
+    }
+
+    // The implementation this replaced, kept verbatim as the baseline
+    static class LegacyBase62Encoder {
+
+        private static final String BASE62 = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+        static String encode(long number) {
+            if (number == 0) return "0";
+
+            StringBuilder result = new StringBuilder();
+
+            while (number > 0) {
+                int remainder = (int) (number % 62);
+                result.append(BASE62.charAt(remainder));
+                number = number / 62;
+            }
+
+            return result.reverse().toString();
+        }
+
+        static long decode(String base62) {
+            long number = 0;
+            for (char c : base62.toCharArray()) {
+                number = number * 62 + BASE62.indexOf(c);
+            }
+            return number;
+        }
+    }
+}
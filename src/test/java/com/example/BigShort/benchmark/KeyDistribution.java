@@ -0,0 +1,52 @@
+package com.example.BigShort.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which seeded key a lookup goes to: every key equally often, or a Zipfian skew
+ * where a few hot keys take most of the traffic, as real short links do.
+ */
+public interface KeyDistribution {
+
+    /**
+     * @return a key index in {@code [0, size)}
+     */
+    int next(ThreadLocalRandom random);
+
+    static KeyDistribution uniform(int size) {
+        return random -> random.nextInt(size);
+    }
+
+    /**
+     * P(rank k) is proportional to 1 / k^exponent; 0.99 is the usual YCSB setting.
+     * The CDF is precomputed, so each draw is a binary search.
+     */
+    static KeyDistribution zipfian(int size, double exponent) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+        return random -> {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(size - 1, index >= 0 ? index : -index - 1);
+        };
+    }
+
+    /**
+     * Parses {@code uniform}, {@code zipfian} or {@code zipfian:<exponent>}.
+     */
+    static KeyDistribution parse(String spec, int size) {
+        String[] parts = spec.split(":", 2);
+        return switch (parts[0]) {
+            case "uniform" -> uniform(size);
+            case "zipfian" -> zipfian(size, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.99);
+            default -> throw new IllegalArgumentException("Unknown key distribution: " + spec);
+        };
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.url_service.util.Base62Encoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for the shorten and lookup endpoints, recording latency per operation
+ * in HdrHistogram (microsecond resolution).
+ * <p>
+ * Each request picks an operation from the {@link Workload} mix: a lookup
+ * ({@code GET /api/{shortCode}}) of a seeded code drawn from the key distribution, a
+ * {@code POST /api/shorten}, or a {@code POST /api/custom_shorten} with a fresh code.
+ * At most {@code concurrency} requests are in flight. With a target rate the schedule is
+ * open-loop and latency is measured from each request's intended start, so a server stall
+ * shows up in the tail instead of quietly slowing the generator (coordinated omission).
+ */
+public class LoadGenerator {
+
+    private static final int SEED_BATCH = 1_000;
+
+    public enum Operation { READ, SHORTEN, CUSTOM_SHORTEN }
+
+    /**
+     * @param readRatio   share of requests that are lookups
+     * @param customRatio share of the remaining writes that use a custom code
+     */
+    public record Workload(double readRatio, double customRatio, KeyDistribution keys) {
+
+        public Workload {
+            if (readRatio < 0 || readRatio > 1 || customRatio < 0 || customRatio > 1) {
+                throw new IllegalArgumentException("Ratios must be in [0, 1]");
+            }
+        }
+
+        public static Workload readOnly(int keys) {
+            return new Workload(1.0, 0.0, KeyDistribution.uniform(keys));
+        }
+
+        Operation pick(ThreadLocalRandom random) {
+            if (random.nextDouble() < readRatio) {
+                return Operation.READ;
+            }
+            return random.nextDouble() < customRatio ? Operation.CUSTOM_SHORTEN : Operation.SHORTEN;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    // -------------------------------------------------------
+    // Seed lookup keys through the batch endpoint
+    // -------------------------------------------------------
+    public List<String> seed(int count) throws IOException, InterruptedException {
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            int size = Math.min(SEED_BATCH, count - codes.size());
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                body.append(i == 0 ? "" : ",").append(shortenBody("seed/" + (codes.size() + i)));
+            }
+            HttpResponse<String> response = client.send(
+                    post("/api/shorten/batch", body.append(']').toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed - status=" + response.statusCode() + ", body=" + response.body());
+            }
+            for (JsonNode item : objectMapper.readTree(response.body())) {
+                codes.add(item.path("url").path("shortCode").asText());
+            }
+        }
+        return codes;
+    }
+
+    // -------------------------------------------------------
+    // Run: requests > 0, ratePerSecond <= 0 means closed loop (as fast as concurrency allows)
+    // -------------------------------------------------------
+    public Report run(List<String> codes, Workload workload, int concurrency, int requests, double ratePerSecond)
+            throws InterruptedException {
+        Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+        Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicLong customSequence = new AtomicLong();
+        String runId = Base62Encoder.encode(System.currentTimeMillis());
+        Semaphore permits = new Semaphore(concurrency);
+        long intervalNanos = ratePerSecond > 0 ? (long) (1e9 / ratePerSecond) : 0;
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                long intended = started + i * intervalNanos;
+                if (intervalNanos > 0) {
+                    for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                permits.acquire();
+                long start = intervalNanos > 0 ? intended : System.nanoTime();
+
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Operation operation = workload.pick(random);
+                    HttpRequest request = switch (operation) {
+                        case READ -> get("/api/" + codes.get(workload.keys().next(random)));
+                        case SHORTEN -> post("/api/shorten", shortenBody("load/" + random.nextLong()));
+                        case CUSTOM_SHORTEN -> post("/api/custom_shorten?customCode=lt" + runId
+                                        + Base62Encoder.encode(customSequence.incrementAndGet()),
+                                shortenBody("custom/" + random.nextLong()));
+                    };
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status / 100 != 2) {
+                            errors.get(operation).increment();
+                            failures.computeIfAbsent(operation + " " + status, k -> new LongAdder()).increment();
+                        }
+                    } catch (Exception e) {
+                        errors.get(operation).increment();
+                        failures.computeIfAbsent(operation + " " + e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                    } finally {
+                        latencies.get(operation).recordValue(Math.max(0, (System.nanoTime() - start) / 1_000));
+                        inFlight.decrementAndGet();
+                        permits.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        latencies.forEach((operation, recorder) ->
+                operations.put(operation, new OperationStats(recorder.getIntervalHistogram(), errors.get(operation).sum())));
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((key, count) -> failureCounts.put(key, count.sum()));
+        return new Report("run", operations, failureCounts, elapsed, maxInFlight.get());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String shortenBody(String path) {
+        return "{\"originalUrl\":\"https://example.com/" + path + "\"}";
+    }
+
+    // -------------------------------------------------------
+    // Results
+    // -------------------------------------------------------
+    public record OperationStats(Histogram latencyMicros, long errors) {
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+    }
+
+    public record Report(String name, Map<Operation, OperationStats> operations, Map<String, Long> failures,
+                         long elapsedNanos, int maxConcurrency) {
+
+        public Report named(String name) {
+            return new Report(name, operations, failures, elapsedNanos, maxConcurrency);
+        }
+
+        public Histogram total() {
+            Histogram total = new Histogram(3);
+            operations.values().forEach(stats -> total.add(stats.latencyMicros()));
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder out = new StringBuilder(String.format("%s: %.1fs, max concurrency %d%n", name, seconds, maxConcurrency));
+            out.append(String.format("  %-15s %9s %8s %7s %10s %9s %9s %9s %9s%n",
+                    "operation", "requests", "errors", "err%", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+            long totalErrors = 0;
+            for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+                OperationStats stats = entry.getValue();
+                totalErrors += stats.errors();
+                if (stats.count() > 0) {
+                    out.append(row(entry.getKey().name(), stats.latencyMicros(), stats.errors(), seconds));
+                }
+            }
+            out.append(row("TOTAL", total(), totalErrors, seconds));
+            failures.forEach((key, count) -> out.append(String.format("  failure %s x%d%n", key, count)));
+            return out.toString();
+        }
+
+        private static String row(String label, Histogram histogram, long errors, double seconds) {
+            long count = histogram.getTotalCount();
+            return String.format("  %-15s %9d %8d %6.2f%% %10.0f %9.2f %9.2f %9.2f %9.2f%n",
+                    label, count, errors, count == 0 ? 0.0 : 100.0 * errors / count, count / seconds,
+                    histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3,
+                    histogram.getMaxValue() / 1e3);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.BigShortApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reproducible load test for {@code /api/shorten}, {@code /api/custom_shorten} and
+ * {@code /api/{shortCode}}, reporting p50/p99/p99.9/max latency, throughput and error rate
+ * per operation (see {@link LoadGenerator}).
+ * <p>
+ * Without {@code --target} the app is booted in-process on a random port (test profile, H2);
+ * any option not listed below is passed through to it, e.g. {@code --spring.datasource.url=...}.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.BigShort.benchmark.LoadTestHarness \
+ *     -Dexec.args="--read-ratio=0.9 --custom-ratio=0.1 --distribution=zipfian:0.99 --requests=100000"
+ * </pre>
+ * Options (defaults in brackets): {@code --target} [embedded], {@code --keys} seeded codes [10000],
+ * {@code --requests} [50000], {@code --warmup} requests [5000], {@code --concurrency} [200],
+ * {@code --rate} requests/s, 0 for closed loop [0], {@code --read-ratio} [0.9],
+ * {@code --custom-ratio} share of writes [0.1], {@code --distribution} uniform | zipfian[:s] [zipfian].
+ */
+public class LoadTestHarness {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "keys", "10000",
+            "requests", "50000",
+            "warmup", "5000",
+            "concurrency", "200",
+            "rate", "0",
+            "read-ratio", "0.9",
+            "custom-ratio", "0.1",
+            "distribution", "zipfian");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            String[] pair = arg.startsWith("--") ? arg.substring(2).split("=", 2) : new String[]{arg};
+            if (pair.length == 2 && (DEFAULTS.containsKey(pair[0]) || pair[0].equals("target"))) {
+                options.put(pair[0], pair[1]);
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        ConfigurableApplicationContext context = null;
+        String target = options.get("target");
+        if (target == null) {
+            context = boot(appArgs);
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            int keys = Integer.parseInt(options.get("keys"));
+            LoadGenerator generator = new LoadGenerator(target);
+            List<String> codes = new ArrayList<>(generator.seed(keys));
+            // Hot keys should not all be the oldest (lowest id) rows
+            Collections.shuffle(codes);
+
+            LoadGenerator.Workload workload = new LoadGenerator.Workload(
+                    Double.parseDouble(options.get("read-ratio")),
+                    Double.parseDouble(options.get("custom-ratio")),
+                    KeyDistribution.parse(options.get("distribution"), keys));
+            int concurrency = Integer.parseInt(options.get("concurrency"));
+            double rate = Double.parseDouble(options.get("rate"));
+
+            int warmup = Integer.parseInt(options.get("warmup"));
+            if (warmup > 0) {
+                generator.run(codes, workload, concurrency, warmup, rate);
+            }
+            LoadGenerator.Report report = generator.run(codes, workload, concurrency,
+                    Integer.parseInt(options.get("requests")), rate);
+            System.out.println(report.named(String.format("target=%s read-ratio=%s custom-ratio=%s distribution=%s rate=%s",
+                    target, options.get("read-ratio"), options.get("custom-ratio"), options.get("distribution"), options.get("rate"))));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    static ConfigurableApplicationContext boot(List<String> appArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.com.example.BigShort=WARN",
+                "--app.ratelimit.enabled=false"));     // every request comes from one client
+        args.addAll(appArgs);
+        return new SpringApplicationBuilder(BigShortApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+}
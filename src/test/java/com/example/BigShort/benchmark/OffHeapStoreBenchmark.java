@@ -0,0 +1,111 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.url_service.cache.OffHeapUrlStore;
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Heap footprint and GC cost of the redirect cache with and without the off-heap store.
+ * <p>
+ * Fills a {@link UrlCache} with {@code entries} generated codes - Caffeine on the heap, or
+ * {@link OffHeapUrlStore} - then runs {@code lookups} random lookups with one write in ten, and
+ * prints the heap retained after a full GC, direct memory reserved, and the GC count and
+ * accumulated collection time (pause time for the stop-the-world collectors) over fill and
+ * lookups. Run one mode per JVM with the same heap settings, e.g. {@code -Xmx8g}; with no mode
+ * both run in turn, which is fine for a quick look but lets the first one's garbage leak into
+ * the second.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.BigShort.benchmark.OffHeapStoreBenchmark \
+ *     -Dexec.args="off-heap 20000000 20000000"
+ * </pre>
+ */
+public class OffHeapStoreBenchmark {
+
+    private static final ShortCodeFormat FORMAT = new ShortCodeFormat(0, false);
+
+    public static void main(String[] args) {
+        String[] modes = args.length > 0 ? new String[]{args[0]} : new String[]{"heap", "off-heap"};
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+
+        for (String mode : modes) {
+            System.out.println(run(mode, entries, lookups));
+            System.gc();
+        }
+    }
+
+    private static String run(String mode, int entries, int lookups) {
+        System.gc();
+        long heapBefore = heapUsed();
+        long[] gcBefore = gcTotals();
+
+        UrlCache cache = switch (mode) {
+            case "heap" -> new UrlCache(entries, Duration.ofHours(1), new SimpleMeterRegistry());
+            case "off-heap" -> new UrlCache(entries, Duration.ofHours(1), FORMAT,
+                    new OffHeapUrlStore((long) entries * 128, entries, 256), new SimpleMeterRegistry());
+            default -> throw new IllegalArgumentException("mode is heap or off-heap");
+        };
+        long start = System.nanoTime();
+        for (long id = 0; id < entries; id++) {
+            cache.put(FORMAT.generate(id), target(id));
+        }
+        long fillMillis = (System.nanoTime() - start) / 1_000_000;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            long id = random.nextLong(entries);
+            if (i % 10 == 0) {
+                cache.put(FORMAT.generate(id), target(id));
+            } else if (cache.get(FORMAT.generate(id)) != null) {
+                found++;
+            }
+        }
+        long lookupNanos = System.nanoTime() - start;
+        long[] gcAfter = gcTotals();
+
+        System.gc();
+        long retained = heapUsed() - heapBefore;
+        return String.format("%-8s entries=%d fill=%dms lookups=%d (%.0f ns/op, %d found) retainedHeap=%dMB direct=%dMB gcCount=%d gcTime=%dms size=%d",
+                mode, entries, fillMillis, lookups, (double) lookupNanos / lookups, found,
+                retained >> 20, directUsed() >> 20, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], cache.size());
+    }
+
+    private static RedirectTarget target(long id) {
+        return new RedirectTarget("https://example.com/articles/2025/" + id + "?utm_source=newsletter",
+                id % 4 == 0 ? LocalDateTime.now().plusDays(30) : null, true);
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directUsed() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    // {collections, milliseconds} over all collectors
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.url_service.domain.dto.BatchItemResult;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.interfaces.UrlService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the servlet and reactive deployment modes under the same burst, with few threads.
+ * <p>
+ * Boots the app twice on a random port (test profile, H2 unless overridden): Tomcat with
+ * {@code threads} request threads (platform threads), then WebFlux on Netty with {@code threads}
+ * event loops and lookups over R2DBC. Each run seeds some URLs and fires {@code requests}
+ * lookups at {@code GET /api/{shortCode}} - a database query per request in both modes - with
+ * up to {@code concurrency} in flight, and prints the {@link LoadGenerator} report. Servlet mode
+ * can only have {@code threads} queries running; the rest queue for a thread. H2 runs queries in
+ * the calling thread even over R2DBC, so for meaningful numbers point both modes at MySQL, e.g.
+ * {@code --spring.datasource.url=jdbc:mysql://... --app.reactive.r2dbc.url=r2dbc:mysql://...}.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.BigShort.benchmark.ReactiveModeBenchmark \
+ *     -Dexec.args="4 2000 100000"
+ * </pre>
+ */
+public class ReactiveModeBenchmark {
+
+    private static final int SEEDED_URLS = 1_000;
+    private static final String H2_R2DBC_URL = "r2dbc:h2:mem:///thebigshort?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        String[] appArgs = args.length > 3 ? Arrays.copyOfRange(args, 3, args.length) : new String[0];
+
+        // Read once, when Netty's event loops are first created
+        System.setProperty("reactor.netty.ioWorkerCount", String.valueOf(threads));
+
+        for (boolean reactive : new boolean[]{false, true}) {
+            LoadGenerator.Report result = run(reactive, threads, concurrency, requests, appArgs);
+            System.out.println(result);
+        }
+        System.exit(0);
+    }
+
+    private static LoadGenerator.Report run(boolean reactive, int threads, int concurrency, int requests, String[] appArgs)
+            throws Exception {
+        List<String> args = new ArrayList<>(List.of("--spring.threads.virtual.enabled=false"));
+        if (reactive) {
+            args.add("--spring.main.web-application-type=reactive");
+            args.add("--app.reactive.r2dbc.url=" + H2_R2DBC_URL);
+            args.add("--app.reactive.r2dbc.pool-size=" + Math.max(threads, 32));
+        } else {
+            args.add("--server.tomcat.threads.max=" + threads);
+            args.add("--server.tomcat.threads.min-spare=" + threads);
+        }
+        args.addAll(Arrays.asList(appArgs));
+
+        try (ConfigurableApplicationContext context = LoadTestHarness.boot(args)) {
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            List<String> codes = seed(context.getBean(UrlService.class), reactive);
+            LoadGenerator.Workload workload = LoadGenerator.Workload.readOnly(codes.size());
+
+            // Warm-up so JIT and pools don't count against the first mode
+            generator.run(codes, workload, Math.min(concurrency, 100), Math.min(requests, 5_000), 0);
+            return generator.run(codes, workload, concurrency, requests, 0)
+                    .named((reactive ? "reactive" : "servlet") + " threads=" + threads);
+        }
+    }
+
+    // The batch endpoint is servlet-only, so seed through the service
+    private static List<String> seed(UrlService urlService, boolean reactive) {
+        List<URLRequest> requests = new ArrayList<>(SEEDED_URLS);
+        for (int i = 0; i < SEEDED_URLS; i++) {
+            requests.add(URLRequest.builder()
+                    .originalUrl("https://example.com/seed/" + (reactive ? "reactive/" : "servlet/") + i)
+                    .build());
+        }
+        return urlService.createUrls(requests, 0).stream()
+                .map(BatchItemResult::getUrl)
+                .map(URLResponse::getShortCode)
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.BigShort.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares platform-thread and virtual-thread request handling under the same burst.
+ * <p>
+ * Boots the app twice on a random port (test profile, H2 unless overridden), seeds some URLs and
+ * fires {@code requests} lookups at {@code GET /api/{shortCode}} with up to {@code concurrency}
+ * in flight, then prints the {@link LoadGenerator} report: p50/p99/p99.9/max latency, throughput,
+ * errors and the highest concurrency actually reached. Pass extra {@code --key=value} arguments
+ * to point it at MySQL, e.g. {@code --spring.datasource.url=...}, which is where the two modes
+ * really diverge.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.BigShort.benchmark.ThreadModeBenchmark \
+ *     -Dexec.args="2000 100000"
+ * </pre>
+ */
+public class ThreadModeBenchmark {
+
+    private static final int SEEDED_URLS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        String[] appArgs = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : new String[0];
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            LoadGenerator.Report result = run(virtual, concurrency, requests, appArgs);
+            System.out.println(result);
+        }
+        System.exit(0);
+    }
+
+    private static LoadGenerator.Report run(boolean virtual, int concurrency, int requests, String[] appArgs) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--spring.threads.virtual.enabled=" + virtual));
+        args.addAll(Arrays.asList(appArgs));
+
+        try (ConfigurableApplicationContext context = LoadTestHarness.boot(args)) {
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            List<String> codes = generator.seed(SEEDED_URLS);
+            LoadGenerator.Workload workload = LoadGenerator.Workload.readOnly(codes.size());
+
+            // Warm-up so JIT and pools don't count against the first mode
+            generator.run(codes, workload, Math.min(concurrency, 100), Math.min(requests, 5_000), 0);
+            return generator.run(codes, workload, concurrency, requests, 0).named(virtual ? "virtual" : "platform");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.domain.entity.Url;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead outside the database: entity to {@link URLResponse} mapping and
+ * Bean Validation of {@link URLRequest} (valid, and failing both constraints).
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.include=UrlDtoBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlDtoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Url url;
+    private URLRequest validRequest;
+    private URLRequest invalidRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        url = Url.builder()
+                .id(123_456_789L)
+                .shortCode("8m0Kx")
+                .originalUrl("https://example.com/some/fairly/long/path?utm_source=newsletter&utm_medium=email")
+                .shortUrl("http://localhost:8080/8m0Kx")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(30))
+                .isActive(true)
+                .build();
+        validRequest = URLRequest.builder()
+                .originalUrl(url.getOriginalUrl())
+                .customShortCode("promo2025")
+                .build();
+        invalidRequest = URLRequest.builder()
+                .originalUrl("ftp://example.com")
+                .customShortCode("not valid!")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public URLResponse mapToResponse() {
+        return URLResponse.from(url);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<URLRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<URLRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
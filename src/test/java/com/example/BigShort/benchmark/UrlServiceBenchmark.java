@@ -0,0 +1,77 @@
+package com.example.BigShort.benchmark;
+
+import com.example.BigShort.BigShortApplication;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link URLService} create and lookup paths against the embedded H2 database (test profile).
+ * <p>
+ * The context is booted once per fork on a random port; {@code getUrlInfo} goes to the
+ * database every time, {@code resolveRedirect} is the cached redirect path for comparison.
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.include=UrlServiceBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlServiceBenchmark {
+
+    private static final int SEEDED_URLS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private URLService urlService;
+    private String[] codes;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BigShortApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.com.example.BigShort=WARN");
+        urlService = context.getBean(URLService.class);
+
+        codes = new String[SEEDED_URLS];
+        for (int i = 0; i < SEEDED_URLS; i++) {
+            codes[i] = urlService.createUrl(request("https://example.com/seed/" + i)).getShortCode();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public URLResponse createUrl() {
+        return urlService.createUrl(request("https://example.com/bench/" + ThreadLocalRandom.current().nextLong()));
+    }
+
+    @Benchmark
+    public URLResponse getUrlInfo() {
+        return urlService.getUrlInfo(randomCode());
+    }
+
+    @Benchmark
+    public String resolveRedirect() {
+        return urlService.resolveRedirect(randomCode());
+    }
+
+    private String randomCode() {
+        return codes[ThreadLocalRandom.current().nextInt(codes.length)];
+    }
+
+    private static URLRequest request(String originalUrl) {
+        return URLRequest.builder().originalUrl(originalUrl).build();
+    }
+}
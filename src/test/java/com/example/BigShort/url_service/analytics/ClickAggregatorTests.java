@@ -0,0 +1,84 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClickAggregatorTests {
+
+	private static final long MINUTE = 60_000;
+
+	private final ClickAggregator aggregator = new ClickAggregator();
+
+	@Test
+	void clicksAreCountedPerCodeAndMinute() {
+		long minute = System.currentTimeMillis() / MINUTE * MINUTE;
+		aggregator.accept(List.of(click("a", minute), click("a", minute + MINUTE - 1), click("a", minute + MINUTE),
+				click("b", minute)));
+
+		assertThat(aggregator.drain()).isEqualTo(Map.of(
+				key("a", minute), 2L,
+				key("a", minute + MINUTE), 1L,
+				key("b", minute), 1L));
+		assertThat(aggregator.drain()).isEmpty();
+	}
+
+	@Test
+	void restoredDeltasComeBackOnTheNextDrain() {
+		long minute = System.currentTimeMillis() / MINUTE * MINUTE;
+		aggregator.accept(List.of(click("a", minute)));
+		Map<ClickAggregator.MinuteKey, Long> failed = aggregator.drain();
+
+		aggregator.accept(List.of(click("a", minute)));
+		aggregator.restore(failed);
+
+		assertThat(aggregator.drain()).isEqualTo(Map.of(key("a", minute), 2L));
+	}
+
+	// Late events keep landing in buckets that every drain removes as idle; none may be lost
+	@Test
+	void drainingIdleBucketsNeverLosesConcurrentClicks() throws Exception {
+		long old = System.currentTimeMillis() - 10 * MINUTE;
+		List<ClickEvent> batch = List.of(click("late", old), click("late", old), click("other", old));
+		int producers = 4;
+		int batches = 20_000;
+		AtomicBoolean producing = new AtomicBoolean(true);
+		long[] drained = new long[1];
+
+		CompletableFuture<Void> consumer = CompletableFuture.runAsync(() -> {
+			while (producing.get()) {
+				aggregator.drain().values().forEach(clicks -> drained[0] += clicks);
+			}
+		});
+		List<CompletableFuture<Void>> running = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			running.add(CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < batches; i++) {
+					aggregator.accept(batch);
+				}
+			}));
+		}
+		CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+		producing.set(false);
+		consumer.get(10, TimeUnit.SECONDS);
+		aggregator.drain().values().forEach(clicks -> drained[0] += clicks);
+
+		assertThat(drained[0]).isEqualTo((long) producers * batches * batch.size());
+	}
+
+	private static ClickEvent click(String shortCode, long timestamp) {
+		return new ClickEvent(shortCode, timestamp, null, ClickEvent.UserAgentClass.OTHER, "127.0.0.1");
+	}
+
+	private static ClickAggregator.MinuteKey key(String shortCode, long timestamp) {
+		return new ClickAggregator.MinuteKey(shortCode, timestamp / MINUTE);
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.entity.RollupGranularity;
+import com.example.BigShort.url_service.domain.entity.UrlClickRollup;
+import com.example.BigShort.url_service.repository.ClickRollupRepository;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database and no scheduled flushes: each test decides when deltas reach the rollups
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.stats.flush-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClickRollupFlusherTests {
+
+	// Yesterday 23:59 and today 00:00: one minute apart, but different hours and days
+	private static final LocalDateTime MIDNIGHT = LocalDate.now().atStartOfDay();
+	private static final LocalDateTime LAST_MINUTE = MIDNIGHT.minusMinutes(1);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private ClickAggregator clickAggregator;
+
+	@Autowired
+	private ClickRollupFlusher clickRollupFlusher;
+
+	@Autowired
+	private ClickRollupRepository rollupRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void clicksAcrossMidnightLandInTheirOwnBucketsAtEveryGranularity() {
+		clickAggregator.accept(List.of(
+				click("midnight", LAST_MINUTE.plusSeconds(30)),
+				click("midnight", LAST_MINUTE.plusSeconds(59)),
+				click("midnight", MIDNIGHT.plusSeconds(10))));
+		clickRollupFlusher.flush();
+
+		assertThat(series("midnight", RollupGranularity.MINUTE)).containsOnly(entry(LAST_MINUTE, 2L), entry(MIDNIGHT, 1L));
+		assertThat(series("midnight", RollupGranularity.HOUR)).containsOnly(entry(MIDNIGHT.minusHours(1), 2L), entry(MIDNIGHT, 1L));
+		assertThat(series("midnight", RollupGranularity.DAY)).containsOnly(entry(MIDNIGHT.minusDays(1), 2L), entry(MIDNIGHT, 1L));
+		assertThat(rollupRepository.totalClicks("midnight")).isEqualTo(3);
+
+		// A later flush adds to the existing rows
+		clickAggregator.accept(List.of(click("midnight", MIDNIGHT.plusSeconds(20))));
+		clickRollupFlusher.flush();
+		assertThat(series("midnight", RollupGranularity.MINUTE)).containsOnly(entry(LAST_MINUTE, 2L), entry(MIDNIGHT, 2L));
+		assertThat(rollupRepository.totalClicks("midnight")).isEqualTo(4);
+	}
+
+	@Test
+	void failedFlushPutsTheDeltasBackForTheNextOne() {
+		ClickRollupRepository broken = mock(ClickRollupRepository.class);
+		doThrow(new IllegalStateException("database down")).when(broken).addClicks(any(), any());
+		ClickRollupFlusher failing = new ClickRollupFlusher(clickAggregator, broken, transactionManager);
+		clickAggregator.accept(List.of(click("retried", MIDNIGHT.plusMinutes(5)), click("retried", MIDNIGHT.plusMinutes(5))));
+
+		failing.flush();
+		assertThat(rollupRepository.totalClicks("retried")).isZero();
+
+		clickRollupFlusher.flush();
+		assertThat(series("retried", RollupGranularity.MINUTE)).containsOnly(entry(MIDNIGHT.plusMinutes(5), 2L));
+		assertThat(rollupRepository.totalClicks("retried")).isEqualTo(2);
+	}
+
+	@Test
+	void statsEndpointReturnsTheZeroFilledSeries() throws Exception {
+		String code = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/stats").build()).getShortCode();
+		clickAggregator.accept(List.of(click(code, LAST_MINUTE), click(code, MIDNIGHT.plusMinutes(90))));
+		clickRollupFlusher.flush();
+
+		mockMvc.perform(get("/api/{code}/stats", code)
+						.param("granularity", "HOUR")
+						.param("from", MIDNIGHT.minusHours(1).plusMinutes(30).toString())
+						.param("to", MIDNIGHT.plusHours(2).toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.shortCode").value(code))
+				.andExpect(jsonPath("$.granularity").value("HOUR"))
+				.andExpect(jsonPath("$.totalClicks").value(2))
+				.andExpect(jsonPath("$.from").value(MIDNIGHT.minusHours(1).toString() + ":00"))
+				.andExpect(jsonPath("$.to").value(MIDNIGHT.plusHours(2).toString() + ":00"))
+				.andExpect(jsonPath("$.series.length()").value(4))
+				.andExpect(jsonPath("$.series[*].clicks").value(contains(1, 0, 1, 0)));
+	}
+
+	@Test
+	void statsEndpointRejectsBadRangesAndUnknownCodes() throws Exception {
+		String code = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/stats-range").build()).getShortCode();
+
+		mockMvc.perform(get("/api/{code}/stats", code)
+						.param("from", MIDNIGHT.toString())
+						.param("to", MIDNIGHT.minusHours(1).toString()))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/{code}/stats", code)
+						.param("granularity", "MINUTE")
+						.param("from", MIDNIGHT.minusDays(1).toString())
+						.param("to", MIDNIGHT.toString()))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/{code}/stats", "neverIssued"))
+				.andExpect(status().isNotFound());
+	}
+
+	private Map<LocalDateTime, Long> series(String shortCode, RollupGranularity granularity) {
+		return rollupRepository.findSeries(shortCode, granularity, MIDNIGHT.minusDays(2), MIDNIGHT.plusDays(1)).stream()
+				.collect(Collectors.toMap(r -> r.getId().getBucketStart(), UrlClickRollup::getClicks));
+	}
+
+	private static ClickEvent click(String shortCode, LocalDateTime at) {
+		return new ClickEvent(shortCode, at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), null,
+				ClickEvent.UserAgentClass.OTHER, "127.0.0.1");
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.BigShort.url_service.analytics;
+
+import com.example.BigShort.url_service.domain.dto.ClickEvent;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import com.example.BigShort.url_service.util.MpscRingBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ClickTrackerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private ClickTracker clickTracker;
+
+	@Autowired
+	private ClickRollupFlusher clickRollupFlusher;
+
+	@Test
+	void redirectsAndLookupsAreCountedThroughTheInMemoryTransport() throws Exception {
+		URLResponse url = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/clicks").build());
+
+		mockMvc.perform(get("/r/" + url.getShortCode())).andExpect(status().isFound());
+		mockMvc.perform(get("/r/" + url.getShortCode())).andExpect(status().isFound());
+		mockMvc.perform(get("/api/" + url.getShortCode())).andExpect(status().isOk());
+		clickTracker.flush();
+		clickRollupFlusher.flush();
+
+		mockMvc.perform(get("/api/" + url.getShortCode() + "/stats"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalClicks").value(3))
+				.andExpect(jsonPath("$.series.length()").value(24));
+	}
+
+	@Test
+	void fullBufferDropsEventsInsteadOfBlocking() {
+		List<List<ClickEvent>> published = new ArrayList<>();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ClickTracker tracker = new ClickTracker(published::add, true, 4, 2, registry);
+
+		for (int i = 0; i < 10; i++) {
+			tracker.record("abc", new MockHttpServletRequest());
+		}
+		tracker.flush();
+
+		assertThat(published).hasSize(2).allSatisfy(batch -> assertThat(batch).hasSize(2));
+		assertThat(registry.counter("bigshort.clicks.dropped").count()).isEqualTo(6);
+	}
+
+	@Test
+	void ringBufferHandsBackSlotsAfterDrain() {
+		MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(2);
+		assertThat(buffer.offer(1)).isTrue();
+		assertThat(buffer.offer(2)).isTrue();
+		assertThat(buffer.offer(3)).isFalse();
+
+		List<Integer> sink = new ArrayList<>();
+		assertThat(buffer.drainTo(sink, 10)).isEqualTo(2);
+		assertThat(buffer.offer(3)).isTrue();
+		assertThat(sink).containsExactly(1, 2);
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import com.example.BigShort.url_service.service.impl.URLService;
+import com.example.BigShort.url_service.service.impl.UrlDeduplicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Scheduled flushing is pushed out of the way so the tests decide where batches split
+@SpringBootTest(properties = "app.cache.invalidation.flush-interval=PT1H")
+@ActiveProfiles("test")
+class CacheInvalidationBusTests {
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private UrlCache urlCache;
+
+	@Autowired
+	private CacheInvalidationBus bus;
+
+	@Autowired
+	private InMemoryInvalidationTransport transport;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void deactivationsAreBroadcastInNumberedBatches() {
+		bus.flush();    // creations queued by other tests
+		List<CacheInvalidation> seen = new CopyOnWriteArrayList<>();
+		transport.subscribe(seen::add);
+		URLResponse first = create("https://example.com/broadcast/1");
+		URLResponse second = create("https://example.com/broadcast/2");
+
+		urlService.deactivateUrl(first.getId());
+		urlService.deactivateUrl(second.getId());
+		bus.flush();
+		URLResponse custom = urlService.createCustomUrl("broadcast",
+				URLRequest.builder().originalUrl("https://example.com/custom").build());
+		bus.flush();
+
+		assertThat(seen).hasSize(2);
+		assertThat(seen.get(0).shortCodes()).containsExactly(first.getShortCode(), second.getShortCode());
+		assertThat(seen.get(1).shortCodes()).containsExactly(custom.getShortCode());
+		assertThat(seen.get(1).sequence()).isEqualTo(seen.get(0).sequence() + 1);
+	}
+
+	@Test
+	void batchFromAnotherInstanceEvictsTheCachedTarget() {
+		URLResponse url = create("https://example.com/peer");
+		urlService.resolveRedirect(url.getShortCode());
+		assertThat(urlCache.get(url.getShortCode())).isNotNull();
+
+		bus.receive(new CacheInvalidation("peer-a", 1, List.of(url.getShortCode()), System.currentTimeMillis()));
+
+		assertThat(urlCache.get(url.getShortCode())).isNull();
+	}
+
+	@Test
+	void sequenceGapReconcilesFromTheDatabase() throws Exception {
+		URLResponse url = create("https://example.com/lost-message");
+		urlService.resolveRedirect(url.getShortCode());
+		// Deactivated by another instance whose batch #2 never arrived
+		jdbcTemplate.update("UPDATE urls SET is_active = FALSE, deactivated_at = CURRENT_TIMESTAMP WHERE id = ?", url.getId());
+		bus.receive(new CacheInvalidation("peer-b", 1, List.of("unrelated"), System.currentTimeMillis()));
+		assertThat(urlCache.get(url.getShortCode())).isNotNull();
+
+		bus.receive(new CacheInvalidation("peer-b", 3, List.of("unrelated"), System.currentTimeMillis()));
+
+		eventually(() -> assertThat(urlCache.get(url.getShortCode())).isNull());
+		assertThatThrownBy(() -> urlService.resolveRedirect(url.getShortCode())).isInstanceOf(UrlGoneException.class);
+	}
+
+	@Test
+	void gapsAndOverlappingReconcilesNeverBlockTheCaller() throws Exception {
+		UrlRepository repository = mock(UrlRepository.class);
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.onAllShards(any())).thenAnswer(invocation -> List.of(invocation.<IntFunction<?>>getArgument(0).apply(0)));
+		List<Runnable> handedOff = new CopyOnWriteArrayList<>();
+		CacheInvalidationBus isolated = new CacheInvalidationBus(urlCache, mock(ShortCodeBloomFilter.class), mock(UrlDeduplicator.class),
+				mock(InvalidationTransport.class), repository, router, handedOff::add, true, 500, Duration.ofMinutes(1),
+				new SimpleMeterRegistry());
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findShortCodesDeactivatedSince(any())).thenAnswer(invocation -> {
+			entered.countDown();
+			release.await();
+			return List.of();
+		}).thenReturn(List.of());
+
+		// The gap is handed to the executor; the listener thread does no I/O
+		isolated.receive(new CacheInvalidation("peer-c", 1, List.of("unrelated"), System.currentTimeMillis()));
+		isolated.receive(new CacheInvalidation("peer-c", 3, List.of("unrelated"), System.currentTimeMillis()));
+		assertThat(handedOff).hasSize(1);
+		verify(repository, never()).findShortCodesDeactivatedSince(any());
+
+		// A reconcile arriving mid-pass returns at once and the running pass goes round again
+		CompletableFuture<Void> running = CompletableFuture.runAsync(handedOff.get(0));
+		entered.await();
+		isolated.reconcile();
+		verify(repository, times(1)).findShortCodesDeactivatedSince(any());
+		release.countDown();
+		running.get(10, TimeUnit.SECONDS);
+		verify(repository, times(2)).findShortCodesDeactivatedSince(any());
+	}
+
+	// Gap handling runs on the task executor, off the receiving thread
+	private static void eventually(Runnable assertion) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (true) {
+			try {
+				assertion.run();
+				return;
+			} catch (AssertionError e) {
+				if (System.nanoTime() > deadline) {
+					throw e;
+				}
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	private URLResponse create(String originalUrl) {
+		return urlService.createUrl(URLRequest.builder().originalUrl(originalUrl).build());
+	}
+}
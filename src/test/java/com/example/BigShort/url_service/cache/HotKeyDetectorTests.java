@@ -0,0 +1,72 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyDetectorTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final UrlCache cache = new UrlCache(10_000, Duration.ofMinutes(10), registry);
+	// Every lookup counted, top 3, hot at 50 hits per window
+	private final HotKeyDetector detector = new HotKeyDetector(cache, true, 3, 50, 1, 1024, registry);
+
+	@Test
+	void skewedTrafficPinsOnlyTheHeavyHitters() {
+		for (int i = 0; i < 500; i++) {
+			cache.put("cold" + i, target("cold" + i));
+			lookup("cold" + i, 3);
+		}
+		for (String hot : new String[]{"hotA", "hotB", "hotC", "hotD"}) {
+			cache.put(hot, target(hot));
+		}
+		lookup("hotA", 400);
+		lookup("hotB", 300);
+		lookup("hotC", 200);
+		lookup("hotD", 100);
+
+		detector.refresh();
+
+		assertThat(detector.hotKeys()).extracting(HotKeyDetector.HotKey::shortCode).containsExactly("hotA", "hotB", "hotC");
+		assertThat(detector.hotKeys()).allSatisfy(hotKey -> assertThat(hotKey.pinned()).isTrue());
+		assertThat(cache.isPinned("hotD")).isFalse();
+		assertThat(cache.isPinned("cold1")).isFalse();
+		assertThat(cache.get("hotA")).isEqualTo(target("hotA"));
+		assertThat(registry.get("bigshort.cache.pinned.hits").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidationUnpinsAndCooledCodesDropOut() {
+		cache.put("viral", target("viral"));
+		cache.put("fading", target("fading"));
+		lookup("viral", 200);
+		lookup("fading", 200);
+		detector.refresh();
+		assertThat(cache.isPinned("viral")).isTrue();
+
+		cache.invalidate("viral");
+		assertThat(cache.isPinned("viral")).isFalse();
+		assertThat(cache.get("viral")).isNull();
+
+		// No more traffic: halving every window takes the candidates under the threshold
+		for (int i = 0; i < 5; i++) {
+			detector.refresh();
+		}
+		assertThat(cache.isPinned("fading")).isFalse();
+		assertThat(detector.hotKeys()).isEmpty();
+	}
+
+	private void lookup(String shortCode, int times) {
+		for (int i = 0; i < times; i++) {
+			detector.record(shortCode);
+		}
+	}
+
+	private static RedirectTarget target(String shortCode) {
+		return new RedirectTarget("https://example.com/" + shortCode, null, true);
+	}
+}
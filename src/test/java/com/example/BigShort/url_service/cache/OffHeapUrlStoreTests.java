@@ -0,0 +1,98 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.util.ShortCodeFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapUrlStoreTests {
+
+	private static final long NOW = 1_000_000L;
+	private static final long LATER = NOW + 60_000;
+
+	@Test
+	void roundTripsTargetsAndSurvivesRemovalsInsideProbeChains() {
+		// One small segment: 512 slots for 256 entries, so probe chains are common
+		OffHeapUrlStore store = new OffHeapUrlStore(1 << 20, 256, 1);
+		LocalDateTime expiresAt = LocalDateTime.of(2031, 5, 17, 8, 30, 15, 123_456_000);
+		for (long id = 0; id < 256; id++) {
+			assertThat(store.put(id, target(id, id % 2 == 0 ? expiresAt : null, id % 3 != 0), LATER)).isTrue();
+		}
+		for (long id = 0; id < 256; id += 3) {
+			store.remove(id);
+		}
+
+		for (long id = 0; id < 256; id++) {
+			RedirectTarget found = store.get(id, NOW);
+			if (id % 3 == 0) {
+				assertThat(found).isNull();
+			} else {
+				assertThat(found).isEqualTo(target(id, id % 2 == 0 ? expiresAt : null, true));
+			}
+		}
+		assertThat(store.size()).isEqualTo(256 - 86);
+		assertThat(store.get(7, LATER + 1)).isNull();
+	}
+
+	@Test
+	void compactionReclaimsReplacedRemovedAndExpiredRecords() {
+		OffHeapUrlStore store = new OffHeapUrlStore(64 * 1024, 1024, 1);
+		for (int round = 0; round < 50; round++) {
+			for (long id = 0; id < 40; id++) {
+				// Each round replaces every entry; id 0 is removed and 1 expires
+				store.put(id, target(id * 1000 + round, null, true), id == 1 ? NOW - 1 : System.currentTimeMillis() + 60_000);
+			}
+			store.remove(0);
+		}
+
+		assertThat(store.compactions()).isPositive();
+		assertThat(store.evictions()).isZero();
+		assertThat(store.get(0, System.currentTimeMillis())).isNull();
+		assertThat(store.get(1, System.currentTimeMillis())).isNull();
+		for (long id = 2; id < 40; id++) {
+			assertThat(store.get(id, System.currentTimeMillis())).isEqualTo(target(id * 1000 + 49, null, true));
+		}
+	}
+
+	@Test
+	void segmentThatStaysFullIsClearedInsteadOfCompactedOnEveryWrite() {
+		OffHeapUrlStore store = new OffHeapUrlStore(4 * 1024, 1024, 1);
+		long future = System.currentTimeMillis() + 60_000;
+		for (long id = 0; id < 200; id++) {
+			store.put(id, target(id, null, true), future);
+		}
+
+		assertThat(store.evictions()).isPositive();
+		assertThat(store.compactions()).isLessThan(20);
+		assertThat(store.get(199, System.currentTimeMillis())).isEqualTo(target(199, null, true));
+		assertThat(store.usedBytes()).isLessThanOrEqualTo(4 * 1024);
+	}
+
+	@Test
+	void urlCacheKeepsGeneratedCodesOffHeapAndCustomCodesOnIt() {
+		ShortCodeFormat format = new ShortCodeFormat(6, true);
+		OffHeapUrlStore store = new OffHeapUrlStore(1 << 20, 1024, 4);
+		UrlCache cache = new UrlCache(1000, Duration.ofMinutes(10), format, store, new SimpleMeterRegistry());
+		String generated = format.generate(4242);
+
+		cache.put(generated, target(1, null, true));
+		cache.put("summer24", target(2, null, true));
+
+		assertThat(store.size()).isEqualTo(1);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get(generated)).isEqualTo(target(1, null, true));
+		assertThat(cache.get("summer24")).isEqualTo(target(2, null, true));
+		cache.invalidate(generated);
+		assertThat(cache.get(generated)).isNull();
+		assertThat(store.size()).isZero();
+	}
+
+	private static RedirectTarget target(long n, LocalDateTime expiresAt, boolean active) {
+		return new RedirectTarget("https://example.com/café/" + n, expiresAt, active);
+	}
+}
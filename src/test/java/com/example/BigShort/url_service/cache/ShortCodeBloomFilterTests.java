@@ -0,0 +1,133 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.BatchItemResult;
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.service.impl.URLService;
+import com.example.BigShort.url_service.service.interfaces.IdAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Own database; catch-up and broadcasts only run when a test calls them
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bloom;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.bloom.catch-up-interval=PT1H",
+		"app.cache.invalidation.flush-interval=PT1H",
+		"app.cache.invalidation.reconcile-interval=PT1H"
+})
+@ActiveProfiles("test")
+class ShortCodeBloomFilterTests {
+
+	@Autowired
+	private ShortCodeBloomFilter filter;
+
+	@Autowired
+	private CacheInvalidationBus bus;
+
+	@Autowired
+	private InMemoryInvalidationTransport transport;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private IdAllocator idAllocator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void bitsHaveNoFalseNegativesAndStayNearTheConfiguredFalsePositiveRate() {
+		ShortCodeBloomFilter.Bits bits = new ShortCodeBloomFilter.Bits(20_000, 0.01);
+		for (int i = 0; i < 20_000; i++) {
+			bits.put("code" + i);
+		}
+		for (int i = 0; i < 20_000; i++) {
+			assertThat(bits.mightContain("code" + i)).isTrue();
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (bits.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+
+	@Test
+	void generatedCodesAreBroadcastLikeCustomOnes() {
+		List<CacheInvalidation> seen = new CopyOnWriteArrayList<>();
+		transport.subscribe(seen::add);
+
+		URLResponse single = urlService.createUrl(request("https://example.com/bloom/single"));
+		List<BatchItemResult> batch = urlService.createUrls(List.of(request("https://example.com/bloom/batch")), 0);
+		bus.flush();
+
+		assertThat(seen).flatMap(CacheInvalidation::shortCodes)
+				.contains(single.getShortCode(), batch.get(0).getUrl().getShortCode());
+	}
+
+	@Test
+	void codeCreatedOnAnotherInstanceResolvesOnceItsBroadcastArrives() {
+		filter.rebuild();
+		insertAsPeer("peerNew1");
+		assertThatThrownBy(() -> urlService.resolveRedirect("peerNew1")).isInstanceOf(ShortCodeNotFoundException.class);
+
+		bus.receive(new CacheInvalidation("peer-a", 1, List.of("peerNew1"), System.currentTimeMillis()));
+
+		assertThat(filter.mightContain("peerNew1")).isTrue();
+		assertThat(urlService.resolveRedirect("peerNew1")).isEqualTo("https://example.com/peerNew1");
+	}
+
+	@Test
+	void lostBroadcastIsCaughtUpFromTheDatabase() throws Exception {
+		filter.rebuild();
+		bus.receive(new CacheInvalidation("peer-b", 1, List.of("unrelated"), System.currentTimeMillis()));
+		insertAsPeer("peerLost1");
+		assertThat(filter.mightContain("peerLost1")).isFalse();
+
+		// Batch #2, which announced peerLost1, never arrived
+		bus.receive(new CacheInvalidation("peer-b", 3, List.of("unrelated"), System.currentTimeMillis()));
+
+		eventually(() -> assertThat(filter.mightContain("peerLost1")).isTrue());
+	}
+
+	// Another instance leases its ids from the same sequence
+	private void insertAsPeer(String shortCode) {
+		jdbcTemplate.update("INSERT INTO urls (id, created_at, is_active, original_url, short_code, short_url) "
+						+ "VALUES (?, CURRENT_TIMESTAMP, TRUE, ?, ?, ?)",
+				idAllocator.nextId(), "https://example.com/" + shortCode, shortCode, "http://localhost:8080/" + shortCode);
+	}
+
+	// Gap handling runs on the task executor, off the receiving thread
+	private static void eventually(Runnable assertion) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (true) {
+			try {
+				assertion.run();
+				return;
+			} catch (AssertionError e) {
+				if (System.nanoTime() > deadline) {
+					throw e;
+				}
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	private static URLRequest request(String originalUrl) {
+		return URLRequest.builder().originalUrl(originalUrl).build();
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.BigShort.url_service.cache;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlCacheTests {
+
+	private static final int CALLERS = 64;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final UrlCache cache = new UrlCache(1000, Duration.ofMinutes(10), registry);
+
+	@Test
+	void burstOfMissesOnOneCodeRunsASingleQuery() throws Exception {
+		AtomicInteger queries = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		RedirectTarget row = new RedirectTarget("https://example.com/viral", null, true);
+
+		List<RedirectTarget> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<RedirectTarget>> futures = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				futures.add(executor.submit(() -> {
+					await(start);
+					return cache.getOrLoad("viral", () -> {
+						queries.incrementAndGet();
+						await(release);
+						return row;
+					});
+				}));
+			}
+			start.countDown();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (registry.get("bigshort.cache.coalesced").functionCounter().count() < CALLERS - 1
+					&& System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<RedirectTarget> future : futures) {
+				results.add(future.get(10, TimeUnit.SECONDS));
+			}
+		}
+
+		assertThat(queries).hasValue(1);
+		assertThat(results).hasSize(CALLERS).containsOnly(row);
+		assertThat(cache.get("viral")).isEqualTo(row);
+		assertThat(registry.get("bigshort.cache.loads").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void deactivationBetweenLoadAndPutKeepsTheOldRowOut() throws Exception {
+		RedirectTarget active = new RedirectTarget("https://example.com/deactivated", null, true);
+		CountDownLatch read = new CountDownLatch(1);
+		CountDownLatch committed = new CountDownLatch(1);
+
+		// The loader has read the row while it was still active and is about to cache it
+		CompletableFuture<RedirectTarget> load = CompletableFuture.supplyAsync(() -> cache.getOrLoad("dead", () -> {
+			read.countDown();
+			await(committed);
+			return active;
+		}));
+		await(read);
+		cache.invalidateAfterCommit("dead");     // no transaction: the after-commit eviction, now
+		committed.countDown();
+
+		assertThat(load.get(10, TimeUnit.SECONDS)).isEqualTo(active);
+		assertThat(cache.get("dead")).isNull();
+
+		// The next load starts after the deactivation and is cached as usual
+		RedirectTarget inactive = new RedirectTarget("https://example.com/deactivated", null, false);
+		assertThat(cache.getOrLoad("dead", () -> inactive)).isEqualTo(inactive);
+		assertThat(cache.get("dead")).isEqualTo(inactive);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.BigShort.url_service.controller;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// JDBC (Flyway, creation) and R2DBC (lookups) share one in-memory database
+@SpringBootTest(properties = {
+		"spring.main.web-application-type=reactive",
+		"spring.datasource.url=jdbc:h2:mem:reactive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.reactive.r2dbc.url=r2dbc:h2:mem:///reactive?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveUrlHandlerTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private URLService urlService;
+
+	@Test
+	void shortenLookupAndRedirectOverFunctionalRoutes() {
+		URLResponse created = shorten("/api/shorten", "https://example.com/reactive")
+				.expectStatus().isOk()
+				.expectBody(URLResponse.class).returnResult().getResponseBody();
+		assertThat(created).isNotNull();
+
+		webTestClient.get().uri("/api/{code}", created.getShortCode())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.originalUrl").isEqualTo("https://example.com/reactive")
+				.jsonPath("$.isActive").isEqualTo(true);
+
+		// Miss (R2DBC query), then cache hit
+		for (int i = 0; i < 2; i++) {
+			webTestClient.get().uri("/r/{code}", created.getShortCode())
+					.exchange()
+					.expectStatus().isFound()
+					.expectHeader().valueEquals(HttpHeaders.LOCATION, "https://example.com/reactive");
+		}
+
+		shorten("/api/custom_shorten?customCode=reactiveCode", "https://example.com/custom")
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.shortCode").isEqualTo("reactiveCode");
+		webTestClient.get().uri("/r/reactiveCode")
+				.exchange()
+				.expectHeader().valueEquals(HttpHeaders.LOCATION, "https://example.com/custom");
+	}
+
+	@Test
+	void errorsKeepTheServletStatusesAndBodies() {
+		webTestClient.post().uri("/api/shorten")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"originalUrl\":\"ftp://example.com\"}")
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.error").isEqualTo("Validation Failed")
+				.jsonPath("$.errors.originalUrl").isEqualTo("URL must start with http:// or https://")
+				.jsonPath("$.path").isEqualTo("/api/shorten");
+
+		webTestClient.get().uri("/r/neverIssued")
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.status").isEqualTo(404)
+				.jsonPath("$.error").isEqualTo("Not Found")
+				.jsonPath("$.path").isEqualTo("/r/neverIssued");
+
+		shorten("/api/custom_shorten?customCode=takenCode", "https://example.com/first").expectStatus().isOk();
+		shorten("/api/custom_shorten?customCode=takenCode", "https://example.com/second")
+				.expectStatus().isEqualTo(409)
+				.expectBody().jsonPath("$.error").isEqualTo("Short Code Already Exists");
+
+		URLResponse created = urlService.createUrl(URLRequest.builder()
+				.originalUrl("https://example.com/deactivated").build());
+		urlService.deactivateUrl(created.getId());
+		webTestClient.get().uri("/r/{code}", created.getShortCode())
+				.exchange()
+				.expectStatus().isEqualTo(410)
+				.expectBody().jsonPath("$.error").isEqualTo("Gone");
+	}
+
+	private WebTestClient.ResponseSpec shorten(String uri, String originalUrl) {
+		return webTestClient.post().uri(uri)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"originalUrl\":\"" + originalUrl + "\"}")
+				.exchange();
+	}
+}
@@ -0,0 +1,118 @@
+package com.example.BigShort.url_service.controller;
+
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:redirect;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RedirectControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private UrlCache urlCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void redirectsWithTheDefaultStatusAndLocation() throws Exception {
+		String code = create("https://example.com/target?q=1", null).getShortCode();
+
+		mockMvc.perform(get("/r/{code}", code))
+				.andExpect(status().isFound())
+				.andExpect(header().string(HttpHeaders.LOCATION, "https://example.com/target?q=1"));
+	}
+
+	@Test
+	void unknownCodeIs404() throws Exception {
+		mockMvc.perform(get("/r/{code}", "neverIssued"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.status").value(404));
+	}
+
+	@Test
+	void expiredLinkIs410() throws Exception {
+		URLResponse url = create("https://example.com/expired", null);
+		jdbcTemplate.update("UPDATE urls SET expires_at = ? WHERE id = ?", LocalDateTime.now().minusMinutes(1), url.getId());
+
+		mockMvc.perform(get("/r/{code}", url.getShortCode()))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("$.status").value(410));
+	}
+
+	@Test
+	void cachedEntryLeavesTheCacheWhenTheLinkExpires() throws Exception {
+		URLResponse url = create("https://example.com/expiring", LocalDateTime.now().plusSeconds(1));
+		mockMvc.perform(get("/r/{code}", url.getShortCode())).andExpect(status().isFound());
+		assertThat(urlCache.get(url.getShortCode())).isNotNull();
+
+		Thread.sleep(1_200);
+
+		assertThat(urlCache.get(url.getShortCode())).isNull();
+		mockMvc.perform(get("/r/{code}", url.getShortCode())).andExpect(status().isGone());
+	}
+
+	@Test
+	void deactivateEvictsTheCachedTargetAndTheLinkIs410() throws Exception {
+		URLResponse url = create("https://example.com/deactivated", null);
+		mockMvc.perform(get("/r/{code}", url.getShortCode())).andExpect(status().isFound());
+		assertThat(urlCache.get(url.getShortCode())).isNotNull();
+
+		urlService.deactivateUrl(url.getId());
+
+		assertThat(urlCache.get(url.getShortCode())).isNull();
+		mockMvc.perform(get("/r/{code}", url.getShortCode())).andExpect(status().isGone());
+	}
+
+	@Nested
+	@TestPropertySource(properties = "app.redirect.status=301")
+	class PermanentRedirects {
+
+		// The enclosing instance is wired from the outer context, so look everything up here
+		@Autowired
+		private MockMvc mockMvc;
+
+		@Autowired
+		private URLService urlService;
+
+		@Test
+		void redirectsWithTheConfiguredStatus() throws Exception {
+			String code = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/permanent").build())
+					.getShortCode();
+
+			mockMvc.perform(get("/r/{code}", code))
+					.andExpect(status().isMovedPermanently())
+					.andExpect(header().string(HttpHeaders.LOCATION, "https://example.com/permanent"));
+		}
+	}
+
+	private URLResponse create(String originalUrl, LocalDateTime expiresAt) {
+		return urlService.createUrl(URLRequest.builder().originalUrl(originalUrl).expiresAt(expiresAt).build());
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.BigShort.url_service.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Tiny limits so chunking and the size cap are exercised with a handful of items
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:batch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.batch.max-items=3",
+		"app.batch.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UrlControllerBatchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void jsonBatchCreatesEveryValidItemAndReportsTheRestInPlace() throws Exception {
+		String body = mockMvc.perform(post("/api/shorten/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"originalUrl\":\"https://example.com/batch/1\"},"
+								+ "{\"originalUrl\":\"ftp://example.com/batch/2\"},"
+								+ "{\"originalUrl\":\"https://example.com/batch/3\"}]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].index").value(0))
+				.andExpect(jsonPath("$[0].url.originalUrl").value("https://example.com/batch/1"))
+				.andExpect(jsonPath("$[1].index").value(1))
+				.andExpect(jsonPath("$[1].url").doesNotExist())
+				.andExpect(jsonPath("$[1].error").isNotEmpty())
+				.andExpect(jsonPath("$[2].url.originalUrl").value("https://example.com/batch/3"))
+				.andReturn().getResponse().getContentAsString();
+
+		String shortCode = JsonPath.read(body, "$[2].url.shortCode");
+		mockMvc.perform(get("/api/" + shortCode))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.originalUrl").value("https://example.com/batch/3"));
+	}
+
+	@Test
+	void jsonBatchOverTheLimitIs413AndCreatesNothing() throws Exception {
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 0; i < 4; i++) {
+			body.append(i == 0 ? "" : ",").append("{\"originalUrl\":\"https://example.com/oversized/").append(i).append("\"}");
+		}
+		// Never closed: the limit is hit before the parser could notice
+		mockMvc.perform(post("/api/shorten/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body.toString()))
+				.andExpect(status().isPayloadTooLarge())
+				.andExpect(jsonPath("$.status").value(413))
+				.andExpect(jsonPath("$.message").value(startsWith("Batch exceeds the maximum of 3 items")));
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM urls WHERE original_url LIKE 'https://example.com/oversized/%'", Integer.class))
+				.isZero();
+	}
+
+	@Test
+	void ndjsonStreamsPastTheLimitWithResultsAlignedToInputLines() throws Exception {
+		String input = String.join("\n",
+				"{\"originalUrl\":\"https://example.com/stream/0\"}",
+				"{not json",
+				"",
+				"{\"originalUrl\":\"https://example.com/stream/2\"}",
+				"{\"originalUrl\":\"mailto:someone@example.com\"}",
+				"{\"originalUrl\":\"https://example.com/stream/4\"}") + "\n";
+
+		String output = mockMvc.perform(post("/api/shorten/batch")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.accept(MediaType.APPLICATION_NDJSON)
+						.content(input))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = output.strip().split("\n");
+		assertThat(lines).hasSize(5);
+		for (int i = 0; i < lines.length; i++) {
+			assertThat(lines[i]).contains("\"index\":" + i);
+		}
+		assertThat(lines[0]).contains("https://example.com/stream/0");
+		assertThat(lines[1]).contains("\"error\":\"Malformed JSON line\"");
+		assertThat(lines[2]).contains("https://example.com/stream/2");
+		assertThat(lines[3]).contains("\"error\"").doesNotContain("\"url\"");
+		assertThat(lines[4]).contains("https://example.com/stream/4");
+	}
+}
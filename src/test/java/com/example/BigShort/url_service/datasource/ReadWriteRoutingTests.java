@@ -0,0 +1,102 @@
+package com.example.BigShort.url_service.datasource;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two embedded databases that do not replicate, so each test can see which one answered.
+// The bloom filter is off because it is built from the primary only.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:rw_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.datasource.replicas.urls=" + ReadWriteRoutingTests.REPLICA_URL,
+		"app.bloom.enabled=false"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:rw_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	// Replication would bring the schema; here it has to exist before the context starts
+	static {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+	}
+
+	private static final String INSERT = "INSERT INTO urls (id, short_code, original_url, created_at, is_active, short_url) " +
+			"VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE, ?)";
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	@Test
+	void writesGoToThePrimaryAndFreshCodesAreReadBackFromIt() {
+		URLResponse created = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/fresh").build());
+
+		assertThat(countByCode(new JdbcTemplate(primaryDataSource), created.getShortCode())).isEqualTo(1);
+		assertThat(countByCode(replica, created.getShortCode())).isZero();
+		assertThat(urlService.getUrlInfo(created.getShortCode()).getOriginalUrl()).isEqualTo("https://example.com/fresh");
+	}
+
+	@Test
+	void lookupsAreServedByTheReplica() {
+		replica.update(INSERT, 900_000_001L, "onReplica", "https://example.com/replica", "http://localhost:8080/onReplica");
+
+		assertThat(urlService.getUrlInfo("onReplica").getOriginalUrl()).isEqualTo("https://example.com/replica");
+		assertThat(urlService.resolveRedirect("onReplica")).isEqualTo("https://example.com/replica");
+	}
+
+	@Test
+	void replicaMissIsRetriedOnThePrimary() {
+		new JdbcTemplate(primaryDataSource).update(INSERT, 900_000_002L, "lagging", "https://example.com/lagging",
+				"http://localhost:8080/lagging");
+
+		assertThat(urlService.getUrlInfo("lagging").getOriginalUrl()).isEqualTo("https://example.com/lagging");
+	}
+
+	@Test
+	void explicitCredentialsAreRoutedLikeTheDefaultOnes() throws Exception {
+		DataSource primary = mock(DataSource.class);
+		DataSource replicaSource = mock(DataSource.class);
+		Connection primaryConnection = mock(Connection.class);
+		Connection replicaConnection = mock(Connection.class);
+		when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+		when(replicaSource.getConnection("reporting", "secret")).thenReturn(replicaConnection);
+		ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replicaSource), 1,
+				new SimpleMeterRegistry());
+
+		assertThat(routing.getConnection("reporting", "secret")).isSameAs(primaryConnection);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			assertThat(routing.getConnection("reporting", "secret")).isSameAs(replicaConnection);
+		} finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+	}
+
+	private static int countByCode(JdbcTemplate jdbc, String shortCode) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM urls WHERE short_code = ?", Integer.class, shortCode);
+	}
+}
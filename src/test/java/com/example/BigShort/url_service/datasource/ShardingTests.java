@@ -0,0 +1,154 @@
+package com.example.BigShort.url_service.datasource;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Three embedded databases as shards 0..2; 16 partitions keep every shard populated with few links
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ShardingTests.SHARD_0,
+		"app.sharding.enabled=true",
+		"app.sharding.shard-urls=" + ShardingTests.SHARD_1 + "," + ShardingTests.SHARD_2,
+		"app.sharding.partitions=16",
+		"app.sharding.rebalance.settle-time=PT0S",
+		"app.shortener.code-width=6",
+		"app.shortener.check-char=true"
+})
+@ActiveProfiles("test")
+class ShardingTests {
+
+	static final String SHARD_0 = "jdbc:h2:mem:shard_0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String SHARD_1 = "jdbc:h2:mem:shard_1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String SHARD_2 = "jdbc:h2:mem:shard_2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final List<JdbcTemplate> SHARDS = List.of(shard(SHARD_0), shard(SHARD_1), shard(SHARD_2));
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private ShardRebalancer rebalancer;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void generatedLinksAreSpreadOverTheShardsAndResolveWithoutADirectory() {
+		List<URLResponse> created = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			created.add(urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/spread/" + i).build()));
+		}
+
+		for (URLResponse url : created) {
+			int shard = shardRouter.shardOfCode(url.getShortCode());
+			assertThat(shardRouter.shardOfId(url.getId())).isEqualTo(shard);
+			assertThat(countByCode(shard, url.getShortCode())).isEqualTo(1);
+			assertThat(urlService.resolveRedirect(url.getShortCode())).isEqualTo(url.getOriginalUrl());
+		}
+		assertThat(rebalancer.stats()).allSatisfy(stats -> assertThat(stats.links()).isPositive());
+	}
+
+	@Test
+	void customCodesRouteByHashAndCanBeDeactivatedById() {
+		URLResponse custom = urlService.createCustomUrl("vanity",
+				URLRequest.builder().originalUrl("https://example.com/vanity").build());
+		int shard = shardRouter.shardOfCode("vanity");
+
+		assertThat(shardRouter.shardOfId(custom.getId())).isEqualTo(shard);
+		assertThat(countByCode(shard, "vanity")).isEqualTo(1);
+		assertThat(urlService.getUrlInfo("vanity").getOriginalUrl()).isEqualTo("https://example.com/vanity");
+
+		urlService.deactivateUrl(custom.getId());
+		assertThat(urlService.getUrlInfo("vanity").getIsActive()).isFalse();
+	}
+
+	@Test
+	void assigningAPartitionMovesItsRows() {
+		URLResponse url = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/moving").build());
+		int partition = shardRouter.partitionOfCode(url.getShortCode());
+		int from = shardRouter.shardOfPartition(partition);
+		int to = (from + 1) % shardRouter.shardCount();
+
+		rebalancer.assign(Map.of(partition, to));
+
+		assertThat(countByCode(from, url.getShortCode())).isZero();
+		assertThat(countByCode(to, url.getShortCode())).isEqualTo(1);
+		assertThat(urlService.getUrlInfo(url.getShortCode()).getOriginalUrl()).isEqualTo("https://example.com/moving");
+		assertThat(SHARDS.get(0).queryForObject("SELECT shard FROM shard_partitions WHERE partition_no = ?",
+				Integer.class, partition)).isEqualTo(to);
+	}
+
+	@Test
+	void rebalanceSpreadsRowsWrittenBeforeSharding() {
+		// A custom row on shard 0 whose code hashes elsewhere, as left behind by an unsharded deployment
+		String code = "legacylink0";
+		for (int i = 1; shardRouter.shardOfCode(code) == 0; i++) {
+			code = "legacylink" + i;
+		}
+		SHARDS.get(0).update("INSERT INTO urls (id, short_code, original_url, created_at, is_active, short_url) " +
+				"VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE, ?)", 7L, code, "https://example.com/legacy", "http://localhost/" + code);
+
+		assertThat(rebalancer.rebalance()).isPositive();
+		assertThat(countByCode(0, code)).isZero();
+		assertThat(countByCode(shardRouter.shardOfCode(code), code)).isEqualTo(1);
+	}
+
+	@Test
+	void deactivationBetweenCopyAndDeleteSurvivesTheMove() {
+		String code = "racinglink0";
+		for (int i = 1; shardRouter.shardOfCode(code) == 0; i++) {
+			code = "racinglink" + i;
+		}
+		SHARDS.get(0).update("INSERT INTO urls (id, short_code, original_url, created_at, is_active, short_url) " +
+				"VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE, ?)", 9L, code, "https://example.com/racing", "http://localhost/" + code);
+		// The source row is deactivated right after its active copy lands on the target
+		AtomicBoolean deactivated = new AtomicBoolean();
+		JdbcTemplate racing = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+			@Override
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				int[] counts = super.batchUpdate(sql, batchArgs);
+				if (sql.startsWith("INSERT") && deactivated.compareAndSet(false, true)) {
+					SHARDS.get(0).update("UPDATE urls SET is_active = FALSE, deactivated_at = CURRENT_TIMESTAMP WHERE id = 9");
+				}
+				return counts;
+			}
+		};
+
+		new ShardRebalancer(shardRouter, racing, transactionManager, Duration.ZERO).rebalance();
+
+		int target = shardRouter.shardOfCode(code);
+		assertThat(deactivated).isTrue();
+		assertThat(countByCode(0, code)).isZero();
+		assertThat(SHARDS.get(target).queryForObject("SELECT is_active FROM urls WHERE short_code = ?", Boolean.class, code))
+				.isFalse();
+	}
+
+	private static int countByCode(int shard, String shortCode) {
+		return SHARDS.get(shard).queryForObject("SELECT COUNT(*) FROM urls WHERE short_code = ?", Integer.class, shortCode);
+	}
+
+	private static JdbcTemplate shard(String url) {
+		return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.BigShort.url_service.hotpath;
+
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pins by hand: no scheduled refresh may replace the pinned set mid-test
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:hotlinks;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.hotkeys.refresh-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotLinkFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private UrlCache urlCache;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void pinnedCodesAreServedFromPrecomputedResponses() throws Exception {
+		URLResponse created = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/hot").build());
+		String code = created.getShortCode();
+		urlService.resolveRedirect(code);
+		urlCache.pin(List.of(code));
+
+		mockMvc.perform(get("/r/{code}", code))
+				.andExpect(status().isFound())
+				.andExpect(header().string(HttpHeaders.LOCATION, "https://example.com/hot"));
+		assertThat(served("redirect")).isEqualTo(1);
+
+		// First lookup goes through the controller and leaves its body behind; the second is served from it
+		String normal = mockMvc.perform(get("/api/{code}", code))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String fast = mockMvc.perform(get("/api/{code}", code))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+				.andReturn().getResponse().getContentAsString();
+		assertThat(fast).isEqualTo(normal).contains("\"shortCode\":\"" + code + "\"");
+		assertThat(served("info")).isEqualTo(1);
+	}
+
+	@Test
+	void deactivationTakesEffectAtOnce() throws Exception {
+		URLResponse created = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/soon-gone").build());
+		String code = created.getShortCode();
+		urlService.resolveRedirect(code);
+		urlCache.pin(List.of(code));
+		mockMvc.perform(get("/r/{code}", code)).andExpect(status().isFound());
+
+		urlService.deactivateUrl(created.getId());
+		mockMvc.perform(get("/r/{code}", code)).andExpect(status().isGone());
+
+		// Re-pinned with the inactive target: still refused through the normal path
+		urlCache.pin(List.of(code));
+		mockMvc.perform(get("/r/{code}", code)).andExpect(status().isGone());
+	}
+
+	private double served(String endpoint) {
+		return meterRegistry.get("bigshort.hotlinks.served").tag("endpoint", endpoint).counter().count();
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.BigShort.url_service.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessLogSamplerTests {
+
+	private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+	private final Logger log = context.getLogger("sampling-test");
+	private final SampledOutTurboFilter turboFilter = new SampledOutTurboFilter();
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	// Shortening is practically never sampled in, lookups always are
+	private final AccessLogSampler sampler = new AccessLogSampler(List.of("POST /api/shorten=1000000000", "GET /api/=1"));
+
+	@BeforeEach
+	void attach() {
+		turboFilter.start();
+		context.addTurboFilter(turboFilter);
+		appender.start();
+		log.addAppender(appender);
+	}
+
+	@AfterEach
+	void detach() {
+		log.detachAppender(appender);
+		context.getTurboFilterList().remove(turboFilter);
+	}
+
+	@Test
+	void sampledOutRequestsKeepOnlyWarningsAndErrors() throws Exception {
+		serve("POST", "/api/shorten");
+
+		assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("warn POST /api/shorten");
+		log.info("after the request");
+		assertThat(appender.list).hasSize(2);
+	}
+
+	@Test
+	void matchingRuleWithRateOneAndUnmatchedRequestsLogEverything() throws Exception {
+		serve("GET", "/api/abc123");
+		serve("POST", "/api/custom_shorten");
+
+		assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+				"info GET /api/abc123", "warn GET /api/abc123",
+				"info POST /api/custom_shorten", "warn POST /api/custom_shorten");
+	}
+
+	@Test
+	void malformedRulesAreRejectedAtStartup() {
+		assertThatThrownBy(() -> new AccessLogSampler(List.of("/api/shorten=10"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AccessLogSampler(List.of("GET /api/=0"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void serve(String method, String uri) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		sampler.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			log.info("info {} {}", method, uri);
+			log.warn("warn {} {}", method, uri);
+		});
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.BigShort.url_service.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	// Writes: 2 per client, practically no refill; reads: 3 per client
+	private final RateLimitFilter filter = new RateLimitFilter(true, "X-API-Key", 0.001, 3, 0.001, 2, 1000, registry);
+
+	@Test
+	void writesOverTheBurstGet429WithRetryAfterWhileReadsAndOtherClientsPass() throws Exception {
+		assertThat(serve("POST", "/api/shorten", "10.0.0.1", null).getStatus()).isEqualTo(200);
+		assertThat(serve("POST", "/api/shorten", "10.0.0.1", null).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse refused = serve("POST", "/api/shorten", "10.0.0.1", null);
+		assertThat(refused.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(refused.getHeader("Retry-After"))).isPositive();
+		assertThat(refused.getContentAsString()).contains("\"status\":429").contains("\"path\":\"/api/shorten\"");
+
+		assertThat(serve("GET", "/r/abc123", "10.0.0.1", null).getStatus()).isEqualTo(200);
+		assertThat(serve("POST", "/api/shorten", "10.0.0.2", null).getStatus()).isEqualTo(200);
+		assertThat(serve("POST", "/api/shorten", "10.0.0.1", "partner-key").getStatus()).isEqualTo(200);
+		assertThat(serve("GET", "/actuator/health", "10.0.0.1", null).getStatus()).isEqualTo(200);
+		assertThat(registry.get("bigshort.ratelimit.rejected").tag("bucket", "write").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rotatingForwardedForDoesNotResetTheBucket() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			assertThat(serve("POST", "/api/shorten", "203.0.113.7", null, "198.51.100." + i).getStatus()).isEqualTo(200);
+		}
+		for (int i = 2; i < 5; i++) {
+			assertThat(serve("POST", "/api/shorten", "203.0.113.7", null, "198.51.100." + i + ", 10.0.0.1").getStatus())
+					.isEqualTo(429);
+		}
+		assertThat(registry.get("bigshort.ratelimit.keys").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentCallersOnOneKeyNeverGetMoreThanTheBurst() throws Exception {
+		RateLimiter limiter = new RateLimiter(0.001, 100, 1000);
+		AtomicInteger granted = new AtomicInteger();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 5_000; i++) {
+						if (limiter.tryAcquire("hot-client") == 0) {
+							granted.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		assertThat(granted.get()).isEqualTo(100);
+	}
+
+	@Test
+	void bucketRefillsAtTheConfiguredRate() throws Exception {
+		RateLimiter limiter = new RateLimiter(100, 1, 1000);
+		assertThat(limiter.tryAcquire("client")).isZero();
+		long wait = limiter.tryAcquire("client");
+		assertThat(wait).isPositive().isLessThanOrEqualTo(10_000_000L);
+
+		Thread.sleep(15);
+		assertThat(limiter.tryAcquire("client")).isZero();
+	}
+
+	private MockHttpServletResponse serve(String method, String uri, String ip, String apiKey) throws Exception {
+		return serve(method, uri, ip, apiKey, null);
+	}
+
+	private MockHttpServletResponse serve(String method, String uri, String ip, String apiKey, String forwardedFor)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		request.setRemoteAddr(ip);
+		if (apiKey != null) {
+			request.addHeader("X-API-Key", apiKey);
+		}
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+			request.addHeader("X-Real-IP", forwardedFor);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(200));
+		return response;
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database left by the app before Flyway (ddl-auto=update): baselined at V1, then migrated
+@SpringBootTest
+@ActiveProfiles("test")
+class LegacySchemaMigrationTests {
+
+	private static final String URL = "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private URLService urlService;
+
+	// Runs before the context (and so Flyway) touches the database
+	@DynamicPropertySource
+	static void legacyDatabase(DynamicPropertyRegistry registry) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE urls (id BIGINT NOT NULL AUTO_INCREMENT, created_at DATETIME(6) NOT NULL, "
+					+ "expires_at DATETIME(6), is_active BIT NOT NULL, original_url TEXT NOT NULL, "
+					+ "short_code VARCHAR(32), short_url VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+			statement.execute("INSERT INTO urls (id, created_at, is_active, original_url, short_code, short_url) VALUES "
+					+ "(41, CURRENT_TIMESTAMP, TRUE, 'https://example.com/legacy', 'F', 'http://localhost:8080/F'), "
+					+ "(42, CURRENT_TIMESTAMP, TRUE, 'https://example.com/dash', 'my-link', 'http://localhost:8080/my-link'), "
+					+ "(43, CURRENT_TIMESTAMP, TRUE, 'https://example.com/underscore', 'promo_2024', 'http://localhost:8080/promo_2024')");
+		}
+		registry.add("spring.datasource.url", () -> URL);
+	}
+
+	@Test
+	void legacySchemaIsBaselinedAndMigratedToTheCurrentOne() {
+		assertThat(jdbcTemplate.queryForList(
+				"SELECT \"version\" || ' ' || \"type\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL "
+						+ "ORDER BY \"installed_rank\"", String.class))
+				.startsWith("1 BASELINE", "1.1 SQL");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'urls' AND column_name = 'url_hash'",
+				Integer.class)).isEqualTo(1);
+
+		URLResponse legacy = urlService.getUrlInfo("F");
+		assertThat(legacy.getOriginalUrl()).isEqualTo("https://example.com/legacy");
+
+		URLResponse created = urlService.createUrl(URLRequest.builder().originalUrl("https://example.com/after-migration").build());
+		assertThat(created.getId()).isGreaterThan(43);
+		assertThat(urlService.getUrlInfo(created.getShortCode()).getOriginalUrl()).isEqualTo("https://example.com/after-migration");
+	}
+
+	// The original app took any custom code; those links must keep resolving
+	@Test
+	void legacyCustomCodesOutsideBase62StillResolve() {
+		assertThat(urlService.getUrlInfo("my-link").getOriginalUrl()).isEqualTo("https://example.com/dash");
+		assertThat(urlService.resolveRedirect("my-link")).isEqualTo("https://example.com/dash");
+		assertThat(urlService.resolveRedirect("promo_2024")).isEqualTo("https://example.com/underscore");
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.dto.RedirectTarget;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.domain.entity.Url;
+import com.example.BigShort.url_service.service.interfaces.IdAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The redirect and info lookups read constructor projections, not entities
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:projections;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class UrlLookupProjectionTests {
+
+	private static final LocalDateTime CREATED = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(3);
+
+	@Autowired
+	private UrlRepository urlRepository;
+
+	@Autowired
+	private IdAllocator idAllocator;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void redirectTargetCarriesUrlExpiryAndActiveFlag() {
+		LocalDateTime future = CREATED.plusDays(30);
+		save("projActive", true, future);
+		save("projInactive", false, null);
+		save("projExpired", true, CREATED.plusDays(1));
+
+		assertThat(urlRepository.findRedirectTarget("projActive"))
+				.contains(new RedirectTarget("https://example.com/projActive", future, true));
+		assertThat(urlRepository.findRedirectTarget("projInactive"))
+				.contains(new RedirectTarget("https://example.com/projInactive", null, false));
+		assertThat(urlRepository.findRedirectTarget("projExpired")).hasValueSatisfying(target -> {
+			assertThat(target.active()).isTrue();
+			assertThat(target.isServable(LocalDateTime.now())).isFalse();
+		});
+		assertThat(urlRepository.findRedirectTarget("projMissing")).isEmpty();
+	}
+
+	@Test
+	void urlInfoCarriesEveryResponseField() {
+		Url inactive = save("projInfo", false, CREATED.plusDays(1));
+
+		assertThat(urlRepository.findUrlInfo("projInfo")).hasValueSatisfying(info -> {
+			assertThat(info.getId()).isEqualTo(inactive.getId());
+			assertThat(info.getShortCode()).isEqualTo("projInfo");
+			assertThat(info.getOriginalUrl()).isEqualTo("https://example.com/projInfo");
+			assertThat(info.getCreatedAt()).isEqualTo(CREATED);
+			assertThat(info.getExpiresAt()).isEqualTo(CREATED.plusDays(1));
+			assertThat(info.getIsActive()).isFalse();
+			assertThat(info.getShortUrl()).isEqualTo("http://localhost/projInfo");
+		});
+		assertThat(urlRepository.findUrlInfo("projInfo")).contains(URLResponse.from(inactive));
+		assertThat(urlRepository.findUrlInfo("projMissing")).isEmpty();
+	}
+
+	// COMMIT flush mode: the lookup reads the database, not the surrounding transaction's pending change
+	@Test
+	void lookupsDoNotFlushAnEnclosingTransaction() {
+		Url url = save("projPending", true, null);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Url managed = urlRepository.findById(url.getId()).orElseThrow();
+			managed.setIsActive(false);
+
+			assertThat(urlRepository.findRedirectTarget("projPending")).map(RedirectTarget::active).contains(true);
+			assertThat(urlRepository.findUrlInfo("projPending")).map(URLResponse::getIsActive).contains(true);
+		});
+		assertThat(urlRepository.findRedirectTarget("projPending")).map(RedirectTarget::active).contains(false);
+	}
+
+	private Url save(String shortCode, boolean active, LocalDateTime expiresAt) {
+		return urlRepository.save(Url.builder()
+				.id(idAllocator.nextId())
+				.shortCode(shortCode)
+				.originalUrl("https://example.com/" + shortCode)
+				.shortUrl("http://localhost/" + shortCode)
+				.createdAt(CREATED)
+				.expiresAt(expiresAt)
+				.isActive(active)
+				.build());
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.BigShort.url_service.repository;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.exception.ShortCodeAlreadyExistsException;
+import com.example.BigShort.url_service.service.impl.URLService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Schema comes from the Flyway migrations (ddl-auto=validate in the test profile too)
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlSchemaTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private URLService urlService;
+
+	@Test
+	void shortCodeLookupsUseTheUniqueIndex() {
+		String redirectPlan = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT original_url, expires_at, is_active FROM urls WHERE short_code = 'abc'", String.class);
+		String existsPlan = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT 1 FROM urls WHERE short_url = 'http://localhost:8080/abc'", String.class);
+
+		assertThat(redirectPlan).contains("uk_urls_short_code").doesNotContain("tableScan");
+		assertThat(existsPlan).contains("uk_urls_short_url").doesNotContain("tableScan");
+	}
+
+	@Test
+	void expirySweepUsesTheActiveExpiresAtIndex() {
+		String plan = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT id, short_code FROM urls WHERE is_active = TRUE AND expires_at <= CURRENT_TIMESTAMP", String.class);
+
+		assertThat(plan).contains("idx_urls_active_expires_at");
+	}
+
+	@Test
+	void customCodeClashIsRejectedByTheUniqueConstraint() {
+		URLRequest request = URLRequest.builder().originalUrl("https://example.com/custom").build();
+		urlService.createCustomUrl("schemaTaken", request);
+
+		assertThatThrownBy(() -> urlService.createCustomUrl("schemaTaken", request))
+				.isInstanceOf(ShortCodeAlreadyExistsException.class);
+	}
+}
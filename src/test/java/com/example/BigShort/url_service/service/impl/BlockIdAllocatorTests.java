@@ -0,0 +1,110 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.datasource.ShardRouter;
+import com.example.BigShort.url_service.repository.IdSequenceRepository;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+// Two allocators on one id_sequence stand in for two instances; own database, nothing else leases
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idblocks;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class BlockIdAllocatorTests {
+
+	private static final int BLOCK_SIZE = 16;
+
+	@Autowired
+	private IdSequenceRepository sequenceRepository;
+
+	@Autowired
+	private UrlRepository urlRepository;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private Executor executor;
+
+	@Test
+	void threadsOnTwoInstancesNeverGetTheSameId() throws Exception {
+		sequenceRepository.deleteAll();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BlockIdAllocator first = allocator(sequenceRepository, registry);
+		long firstId = first.nextId();
+
+		// The second instance looked for the sequence row before the first one committed it: its
+		// insert hits the key and the lease is retried against the row that now exists
+		IdSequenceRepository racing = mock(IdSequenceRepository.class, delegatesTo(sequenceRepository));
+		doReturn(Optional.empty()).doAnswer(delegatesTo(sequenceRepository)).when(racing).findForUpdate(anyString());
+		BlockIdAllocator second = allocator(racing, registry);
+
+		int threads = 16;
+		int perThread = 600;
+		ConcurrentLinkedQueue<Long> issued = new ConcurrentLinkedQueue<>(List.of(firstId));
+		CountDownLatch start = new CountDownLatch(1);
+		try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				BlockIdAllocator allocator = t % 2 == 0 ? first : second;
+				boolean bulk = t % 4 < 2;
+				futures.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < perThread; i += bulk ? 3 : 1) {
+						if (bulk) {
+							for (long id : allocator.nextIds(3)) {
+								issued.add(id);
+							}
+						} else {
+							issued.add(allocator.nextId());
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		Set<Long> unique = new HashSet<>(issued);
+		assertThat(unique).hasSameSizeAs(issued);
+		assertThat(unique).allMatch(id -> id > 0);
+		// Tiny blocks: nearly every lease is a half-block prefetch racing the other instance's
+		long leases = registry.get("bigshort.id.lease").timers().stream().mapToLong(timer -> timer.count()).sum();
+		assertThat(leases).isGreaterThanOrEqualTo(issued.size() / BLOCK_SIZE);
+		assertThat(sequenceRepository.findById(BlockIdAllocator.URL_SEQUENCE).orElseThrow().getNextVal())
+				.isGreaterThan(unique.stream().mapToLong(Long::longValue).max().orElseThrow());
+	}
+
+	private BlockIdAllocator allocator(IdSequenceRepository repository, SimpleMeterRegistry registry) {
+		return new BlockIdAllocator(repository, urlRepository, shardRouter, transactionManager, executor, BLOCK_SIZE, registry);
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Redirect lookups through the real service and cache, counting what reaches the repository
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:redirectloads;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class URLServiceRedirectTests {
+
+	private static final int CALLERS = 64;
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockitoSpyBean
+	private UrlRepository urlRepository;
+
+	@Test
+	void concurrentRedirectsForAnUncachedCodeQueryOnce() throws Exception {
+		String code = create("https://example.com/viral").getShortCode();
+		double coalescedBefore = coalesced();
+		// Hold the one query until every other caller is waiting on it
+		doAnswer(invocation -> {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (coalesced() - coalescedBefore < CALLERS - 1 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			return delegate(invocation);
+		}).when(urlRepository).findRedirectTarget(code);
+
+		List<String> targets = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return urlService.resolveRedirect(code);
+				}));
+			}
+			start.countDown();
+			for (Future<String> future : futures) {
+				targets.add(future.get(20, TimeUnit.SECONDS));
+			}
+		}
+
+		assertThat(targets).hasSize(CALLERS).containsOnly("https://example.com/viral");
+		verify(urlRepository, times(1)).findRedirectTarget(code);
+		assertThat(coalesced() - coalescedBefore).isEqualTo(CALLERS - 1);
+	}
+
+	@Test
+	void deactivationBetweenLoadAndCachingIsNotUndone() {
+		URLResponse url = create("https://example.com/deactivated-mid-load");
+		String code = url.getShortCode();
+		// The row is read while active; the deactivation commits before the loader caches it
+		doAnswer(invocation -> {
+			Object row = delegate(invocation);
+			urlService.deactivateUrl(url.getId());
+			return row;
+		}).when(urlRepository).findRedirectTarget(code);
+
+		assertThat(urlService.resolveRedirect(code)).isEqualTo("https://example.com/deactivated-mid-load");
+		assertThatThrownBy(() -> urlService.resolveRedirect(code)).isInstanceOf(UrlGoneException.class);
+		verify(urlRepository, times(2)).findRedirectTarget(code);
+	}
+
+	// The spy wraps the repository proxy by delegation; callRealMethod has no body to call
+	private Object delegate(InvocationOnMock invocation) throws Throwable {
+		return mockingDetails(urlRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+	}
+
+	private URLResponse create(String originalUrl) {
+		return urlService.createUrl(URLRequest.builder().originalUrl(originalUrl).build());
+	}
+
+	private double coalesced() {
+		return meterRegistry.get("bigshort.cache.coalesced").functionCounter().count();
+	}
+}
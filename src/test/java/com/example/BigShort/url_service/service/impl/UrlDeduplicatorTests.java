@@ -0,0 +1,124 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.cache.InMemoryInvalidationTransport;
+import com.example.BigShort.url_service.domain.dto.CacheInvalidation;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.util.UrlFingerprint;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database, so links created by other test classes are never dedup candidates
+@SpringBootTest(properties = {
+		"app.dedup.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:dedup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class UrlDeduplicatorTests {
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private InMemoryInvalidationTransport transport;
+
+	@Test
+	void sameUrlAndExpiryReuseTheActiveLink() {
+		URLResponse first = urlService.createUrl(request("https://Example.com:443/dedup?q=1"));
+		URLResponse second = urlService.createUrl(request("https://example.com/dedup?q=1"));
+
+		assertThat(second.getShortCode()).isEqualTo(first.getShortCode());
+
+		urlService.deactivateUrl(first.getId());
+		URLResponse third = urlService.createUrl(request("https://example.com/dedup?q=1"));
+		assertThat(third.getShortCode()).isNotEqualTo(first.getShortCode());
+	}
+
+	@Test
+	void linkDeactivatedOnAnotherInstanceIsNotReused() {
+		URLResponse first = urlService.createUrl(request("https://example.com/dedup/elsewhere"));
+		assertThat(urlService.createUrl(request("https://example.com/dedup/elsewhere")).getShortCode())
+				.isEqualTo(first.getShortCode());
+
+		// Deactivated by a peer: its row changes and its broadcast arrives; this node's dedup cache still has it
+		jdbcTemplate.update("UPDATE urls SET is_active = FALSE, deactivated_at = CURRENT_TIMESTAMP WHERE id = ?", first.getId());
+		transport.publish(new CacheInvalidation("peer-dedup", 1, List.of(first.getShortCode()), System.currentTimeMillis()));
+
+		assertThat(urlService.createUrl(request("https://example.com/dedup/elsewhere")).getShortCode())
+				.isNotEqualTo(first.getShortCode());
+	}
+
+	@Test
+	void differentExpiryOrPathGetsANewLink() {
+		LocalDateTime expiry = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+		URLResponse plain = urlService.createUrl(request("https://example.com/expiring"));
+		URLResponse expiring = urlService.createUrl(URLRequest.builder()
+				.originalUrl("https://example.com/expiring").expiresAt(expiry).build());
+		URLResponse otherCase = urlService.createUrl(request("https://example.com/EXPIRING"));
+
+		assertThat(expiring.getShortCode()).isNotEqualTo(plain.getShortCode());
+		assertThat(otherCase.getShortCode()).isNotEqualTo(plain.getShortCode());
+	}
+
+	@Test
+	void normalizationOnlyFoldsEquivalentSpellings() {
+		assertThat(UrlFingerprint.normalize(" HTTP://Example.COM:80 ")).isEqualTo("http://example.com/");
+		assertThat(UrlFingerprint.normalize("https://example.com:8443/A?B#C")).isEqualTo("https://example.com:8443/A?B#C");
+		assertThat(UrlFingerprint.of("https://example.com")).hasSize(UrlFingerprint.LENGTH);
+	}
+
+	@Test
+	void generatedLinksStoreTheirHash() {
+		URLResponse single = urlService.createUrl(request("https://example.com/hashed"));
+		URLResponse batched = urlService.createUrls(List.of(request("https://example.com/hashed-batch")), 0).get(0).getUrl();
+
+		assertThat(urlHash(jdbcTemplate, single)).isEqualTo(UrlFingerprint.of("https://example.com/hashed"));
+		assertThat(urlHash(jdbcTemplate, batched)).isEqualTo(UrlFingerprint.of("https://example.com/hashed-batch"));
+	}
+
+	@Nested
+	@TestPropertySource(properties = "app.dedup.enabled=false")
+	class Disabled {
+
+		// The enclosing instance is wired from the outer context, so look everything up here
+		@Autowired
+		private URLService urlService;
+
+		@Autowired
+		private JdbcTemplate jdbcTemplate;
+
+		@Test
+		void linksAreNeitherReusedNorHashed() {
+			URLResponse first = urlService.createUrl(request("https://example.com/unhashed"));
+			URLResponse second = urlService.createUrl(request("https://example.com/unhashed"));
+			URLResponse batched = urlService.createUrls(List.of(request("https://example.com/unhashed")), 0).get(0).getUrl();
+
+			assertThat(second.getShortCode()).isNotEqualTo(first.getShortCode());
+			assertThat(urlHash(jdbcTemplate, first)).isNull();
+			assertThat(urlHash(jdbcTemplate, second)).isNull();
+			assertThat(urlHash(jdbcTemplate, batched)).isNull();
+		}
+	}
+
+	private static byte[] urlHash(JdbcTemplate jdbcTemplate, URLResponse url) {
+		return jdbcTemplate.queryForObject("SELECT url_hash FROM urls WHERE id = ?", byte[].class, url.getId());
+	}
+
+	private static URLRequest request(String originalUrl) {
+		return URLRequest.builder().originalUrl(originalUrl).build();
+	}
+}
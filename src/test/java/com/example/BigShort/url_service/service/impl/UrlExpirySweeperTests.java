@@ -0,0 +1,58 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.cache.UrlCache;
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.domain.entity.Url;
+import com.example.BigShort.url_service.repository.UrlRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlExpirySweeperTests {
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private UrlExpirySweeper expirySweeper;
+
+	@Autowired
+	private UrlRepository urlRepository;
+
+	@Autowired
+	private UrlCache urlCache;
+
+	@Test
+	void sweepDeactivatesExpiredLinksAndEvictsThem() {
+		URLResponse expired = urlService.createUrl(URLRequest.builder()
+				.originalUrl("https://example.com/expired")
+				.expiresAt(LocalDateTime.now().plusDays(1))
+				.build());
+		URLResponse live = urlService.createUrl(URLRequest.builder()
+				.originalUrl("https://example.com/live")
+				.expiresAt(LocalDateTime.now().plusDays(1))
+				.build());
+		urlService.resolveRedirect(expired.getShortCode());
+		urlService.resolveRedirect(live.getShortCode());
+
+		// Expiry moved into the past behind the cache's back
+		Url row = urlRepository.findByShortCode(expired.getShortCode()).orElseThrow();
+		row.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+		urlRepository.save(row);
+
+		expirySweeper.sweep();
+
+		assertThat(urlRepository.findByShortCode(expired.getShortCode())).get().extracting(Url::getIsActive).isEqualTo(false);
+		assertThat(urlRepository.findByShortCode(live.getShortCode())).get().extracting(Url::getIsActive).isEqualTo(true);
+		assertThat(urlCache.get(expired.getShortCode())).isNull();
+		assertThat(urlCache.get(live.getShortCode())).isNotNull();
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.BigShort.url_service.service.impl;
+
+import com.example.BigShort.url_service.domain.dto.URLRequest;
+import com.example.BigShort.url_service.domain.dto.URLResponse;
+import com.example.BigShort.url_service.exception.ShortCodeAlreadyExistsException;
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import com.example.BigShort.url_service.exception.UrlGoneException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class UrlServiceMetricsTests {
+
+	@Autowired
+	private URLService urlService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void operationsAreTimedByOutcomeAndScrapedAsHistograms() throws Exception {
+		URLResponse created = urlService.createUrl(request("https://example.com/metrics"));
+		urlService.resolveRedirect(created.getShortCode());
+		urlService.createCustomUrl("metricsCode", request("https://example.com/custom"));
+		assertThatThrownBy(() -> urlService.createCustomUrl("metricsCode", request("https://example.com/again")))
+				.isInstanceOf(ShortCodeAlreadyExistsException.class);
+		assertThatThrownBy(() -> urlService.getUrlInfo("neverIssued")).isInstanceOf(ShortCodeNotFoundException.class);
+		urlService.deactivateUrl(created.getId());
+		assertThatThrownBy(() -> urlService.resolveRedirect(created.getShortCode())).isInstanceOf(UrlGoneException.class);
+
+		assertThat(operations("create", "success")).isEqualTo(1);
+		assertThat(operations("redirect", "success")).isEqualTo(1);
+		assertThat(operations("create_custom", "conflict")).isEqualTo(1);
+		assertThat(operations("info", "not_found")).isEqualTo(1);
+		assertThat(operations("redirect", "gone")).isEqualTo(1);
+		assertThat(meterRegistry.get("bigshort.url.gone").tag("reason", "inactive").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("bigshort.url.db").tag("operation", "create").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("bigshort.id.allocate").timer().count()).isGreaterThanOrEqualTo(3);
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(scrape)
+				.contains("bigshort_url_operations_seconds_bucket{")
+				.contains("operation=\"create_custom\",outcome=\"conflict\"")
+				.contains("bigshort_id_allocate_seconds_bucket{");
+	}
+
+	private long operations(String operation, String outcome) {
+		return meterRegistry.get("bigshort.url.operations").tag("operation", operation).tag("outcome", outcome).timer().count();
+	}
+
+	private static URLRequest request(String url) {
+		return URLRequest.builder().originalUrl(url).build();
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.BigShort.url_service.util;
+
+import com.example.BigShort.url_service.exception.InvalidShortCodeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Base62EncoderTests {
+
+	@Test
+	void roundTripsAcrossTheWholeRange() {
+		for (long id : new long[]{0, 1, 61, 62, 3843, 3844, Long.MAX_VALUE}) {
+			assertThat(Base62Encoder.decode(Base62Encoder.encode(id))).isEqualTo(id);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			long id = ThreadLocalRandom.current().nextLong(0, Long.MAX_VALUE);
+			char[] buffer = new char[Base62Encoder.MAX_LENGTH + 2];
+			int length = Base62Encoder.encode(id, buffer, 2);
+			assertThat(new String(buffer, 2, length)).isEqualTo(Base62Encoder.encode(id));
+			assertThat(Base62Encoder.decode(new String(buffer), 2, 2 + length)).isEqualTo(id);
+		}
+		assertThat(Base62Encoder.encode(61)).isEqualTo("Z");
+		assertThat(Base62Encoder.encodePadded(62, 5)).isEqualTo("00010");
+	}
+
+	@Test
+	void decodeRejectsWhatItUsedToAcceptSilently() {
+		assertThatThrownBy(() -> Base62Encoder.decode("ab-c")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Base62Encoder.decode("")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Base62Encoder.decode("zzzzzzzzzzzz")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Base62Encoder.encode(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void checkCharCatchesEverySingleCharacterTypo() {
+		String code = Base62Encoder.appendCheckChar(Base62Encoder.encodePadded(123_456_789L, 7));
+		assertThat(Base62Encoder.hasValidCheckChar(code)).isTrue();
+
+		String alphabet = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+		for (int position = 0; position < code.length(); position++) {
+			for (char replacement : alphabet.toCharArray()) {
+				if (replacement == code.charAt(position)) {
+					continue;
+				}
+				String typo = code.substring(0, position) + replacement + code.substring(position + 1);
+				assertThat(Base62Encoder.hasValidCheckChar(typo)).as(typo).isFalse();
+			}
+		}
+	}
+
+	@Test
+	void formatReservesTheGeneratedLengthForCheckedCodes() {
+		ShortCodeFormat format = new ShortCodeFormat(6, true);
+		String generated = format.generate(42);
+
+		assertThat(generated).hasSize(7);
+		assertThat(format.isWellFormed(generated)).isTrue();
+		assertThat(format.isWellFormed(generated.substring(0, 6) + (generated.charAt(6) == 'a' ? 'b' : 'a'))).isFalse();
+		assertThat(format.isWellFormed("summer24")).isTrue();
+		assertThat(format.isWellFormed("x".repeat(ShortCodeFormat.MAX_LENGTH + 1))).isFalse();
+	}
+
+	@Test
+	void customCodesOutsideBase62StayLegal() {
+		ShortCodeFormat format = new ShortCodeFormat(6, true);
+
+		for (String legacy : new String[]{"my-link", "promo_2024", "a-b_c-d"}) {
+			assertThat(format.isWellFormed(legacy)).as(legacy).isTrue();
+			assertThat(format.isGenerated(legacy)).as(legacy).isFalse();
+			format.validateCustom(legacy);
+		}
+		assertThatThrownBy(() -> format.validateCustom("bad code")).isInstanceOf(InvalidShortCodeException.class);
+		assertThatThrownBy(() -> format.validateCustom("a/b")).isInstanceOf(InvalidShortCodeException.class);
+	}
+
+	@Test
+	void checkedCodesAreNeverAvailableAsCustomCodes() {
+		ShortCodeFormat format = new ShortCodeFormat(6, true);
+		String longer = format.generate(Long.MAX_VALUE / 3);
+
+		assertThat(format.isGenerated(longer)).isTrue();
+		assertThat(format.idOf(longer)).isEqualTo(Long.MAX_VALUE / 3);
+		assertThat(format.isGenerated("summer24")).isFalse();
+		assertThatThrownBy(() -> format.validateCustom(Base62Encoder.appendCheckChar("summer24")))
+				.isInstanceOf(InvalidShortCodeException.class);
+	}
+
+	@Test
+	void canonicalIdAcceptsOnlyWhatTheGeneratorWouldIssue() {
+		for (ShortCodeFormat format : new ShortCodeFormat[]{new ShortCodeFormat(0, false), new ShortCodeFormat(6, false), new ShortCodeFormat(6, true)}) {
+			for (long id : new long[]{0, 1, 61, 62, 3_843_000, Long.MAX_VALUE}) {
+				assertThat(format.canonicalId(format.generate(id))).isEqualTo(id);
+			}
+			assertThat(format.canonicalId("0" + format.generate(123_456_789_012L))).isEqualTo(-1);
+		}
+		assertThat(new ShortCodeFormat(6, false).canonicalId("abc")).isEqualTo(-1);
+		assertThat(new ShortCodeFormat(0, false).canonicalId("zzzzzzzzzzzz")).isEqualTo(-1);
+		assertThat(new ShortCodeFormat(6, true).canonicalId("summer24")).isEqualTo(-1);
+	}
+}
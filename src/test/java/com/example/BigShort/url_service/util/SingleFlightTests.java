@@ -0,0 +1,82 @@
+package com.example.BigShort.url_service.util;
+
+import com.example.BigShort.url_service.exception.ShortCodeNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+	private static final int CALLERS = 64;
+
+	@Test
+	void everyWaiterGetsTheLeadersFailureAndNothingIsRemembered() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		ShortCodeNotFoundException failure = new ShortCodeNotFoundException("gone");
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Object> outcomes = burst(() -> {
+			try {
+				return flight.load("gone", () -> {
+					await(release);
+					throw failure;
+				});
+			} catch (ShortCodeNotFoundException e) {
+				return e;
+			}
+		}, () -> flight.coalesced() == CALLERS - 1, release);
+
+		assertThat(outcomes).hasSize(CALLERS).allSatisfy(outcome -> assertThat(outcome).isSameAs(failure));
+		assertThat(flight.loads()).isEqualTo(1);
+		assertThat(flight.inFlight()).isZero();
+		assertThat(flight.load("gone", () -> "back")).isEqualTo("back");
+		assertThatThrownBy(() -> flight.load("other", () -> {
+			throw failure;
+		})).isSameAs(failure);
+	}
+
+	// Starts CALLERS concurrent calls, releases the loader once everyone has joined, collects results
+	private static <T> List<T> burst(Supplier<T> call, BooleanSupplier allJoined, CountDownLatch release) throws Exception {
+		try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<T>> futures = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				futures.add(executor.submit(() -> {
+					await(start);
+					return call.get();
+				}));
+			}
+			start.countDown();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!allJoined.getAsBoolean() && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get(10, TimeUnit.SECONDS));
+			}
+			return results;
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}